@@ -0,0 +1,59 @@
+package com.github.neshkeev.spring.proxy.benchmark;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import com.github.neshkeev.spring.proxy.rest.CustomerChangesConfiguration;
+import com.github.neshkeev.spring.proxy.rest.CustomerController;
+import com.github.neshkeev.spring.proxy.rest.store.StripedCustomerStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readers, writers and listers hit the controller at once, see the per-method scores of the group.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerControllerBenchmark {
+
+    @Param({"10000"})
+    public int customers;
+
+    private CustomerController controller;
+
+    @Setup
+    public void setUp() {
+        controller = new CustomerController(new StripedCustomerStore(), CustomerChangesConfiguration.customersChanged(Duration.ofMillis(100), 10_000));
+        for (int i = 0; i < customers; i++) {
+            controller.add(new Customer(i, "Customer " + i, i % 2 == 0));
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Customer get() {
+        return controller.get(ThreadLocalRandom.current().nextInt(customers));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void add() {
+        final var id = ThreadLocalRandom.current().nextInt(customers);
+        controller.add(new Customer(id, "Customer " + id, id % 2 == 0));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Collection<Customer> list() {
+        return controller.list();
+    }
+}
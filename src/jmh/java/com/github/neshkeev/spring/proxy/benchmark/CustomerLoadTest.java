@@ -0,0 +1,339 @@
+package com.github.neshkeev.spring.proxy.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshkeev.spring.proxy.Main;
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import com.github.neshkeev.spring.proxy.rest.CustomerController;
+import com.github.neshkeev.spring.proxy.simple.LatencyHistogram;
+import com.github.neshkeev.spring.proxy.simple.LatencySnapshot;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a mix of REST and JMX calls against the whole application: Tomcat, Jackson, the store and the RMI connector.
+ * <p>
+ * The arrivals are open-loop: the requests are scheduled at a fixed rate regardless of how fast the previous ones complete,
+ * and the latency of a request is measured from its scheduled start. A stalled server therefore shows up in the percentiles
+ * as the queue of requests it held back, instead of silently lowering the rate (coordinated omission).
+ * The service time, measured from the actual start, is reported next to it to show the difference.
+ * <p>
+ * By default the application is started in this JVM on random ports; {@code --url} and {@code --jmx-url} point the load
+ * at a running instance instead, so the releases and the configurations can be compared on the same machine:
+ * <pre>
+ * ./mvnw -Pbenchmarks package exec:exec -DskipTests -Dbenchmark.main=com.github.neshkeev.spring.proxy.benchmark.CustomerLoadTest \
+ *     -Djmh.args="--rate=2000 --duration=30s --mix=get:70,post:10,list:5,jmx:15"
+ * </pre>
+ */
+public final class CustomerLoadTest {
+
+    enum Operation {
+        GET, POST, LIST, JMX
+    }
+
+    record Options(double rate,
+                   Duration warmup,
+                   Duration duration,
+                   Map<Operation, Integer> mix,
+                   int customers,
+                   int threads,
+                   String url,
+                   String jmxUrl) {
+
+        static Options parse(String[] args) {
+            final var values = new HashMap<String, String>();
+            for (String arg : args) {
+                final var separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+
+            final var mix = new EnumMap<Operation, Integer>(Operation.class);
+            for (String entry : values.getOrDefault("mix", "get:70,post:10,list:5,jmx:15").split(",")) {
+                final var parts = entry.split(":");
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+            }
+
+            return new Options(Double.parseDouble(values.getOrDefault("rate", "1000")),
+                    DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                    DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+                    mix,
+                    Integer.parseInt(values.getOrDefault("customers", "1000")),
+                    Integer.parseInt(values.getOrDefault("threads", "64")),
+                    values.get("url"),
+                    values.get("jmx-url"));
+        }
+    }
+
+    private static final class Recorder {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    private final Options options;
+
+    private final Operation[] operations;
+
+    // the running sums of the weights of the operations, an arrival picks the first one above a random number below the total
+    private final long[] cumulativeWeights;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private URI baseUri;
+
+    private MBeanServerConnection jmx;
+
+    private ObjectName controllerName;
+
+    private volatile long measuredFrom = Long.MAX_VALUE;
+
+    CustomerLoadTest(Options options) {
+        this.options = options;
+        if (!(options.rate() > 0 && options.rate() <= TimeUnit.SECONDS.toNanos(1))) {
+            throw new IllegalArgumentException("The rate must be between 0 and 1e9 requests per second, got " + options.rate());
+        }
+
+        final var weighted = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : options.mix().entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("The weight of " + entry.getKey() + " must not be negative");
+            }
+            if (entry.getValue() > 0) {
+                weighted.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The mix must have a positive weight");
+        }
+
+        this.operations = new Operation[weighted.size()];
+        this.cumulativeWeights = new long[weighted.size()];
+        int i = 0;
+        long cumulative = 0;
+        for (var entry : weighted.entrySet()) {
+            cumulative += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i++] = cumulative;
+        }
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = Options.parse(args);
+        // the options are checked before the application starts
+        final var loadTest = new CustomerLoadTest(options);
+
+        ConfigurableApplicationContext context = null;
+        JMXConnectorServer connectorServer = null;
+        var url = options.url();
+        var jmxUrl = options.jmxUrl();
+        if (url == null) {
+            context = new SpringApplicationBuilder(Main.class)
+                    .properties("server.port=0", "logging.level.root=WARN")
+                    .run();
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        if (jmxUrl == null) {
+            // the connector embeds its stub in the address, so no registry is needed
+            connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(new JMXServiceURL("rmi", null, 0),
+                    null,
+                    ManagementFactory.getPlatformMBeanServer());
+            connectorServer.start();
+            jmxUrl = connectorServer.getAddress().toString();
+        }
+
+        try (JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl), null)) {
+            loadTest.jmx = connector.getMBeanServerConnection();
+            loadTest.controllerName = new ObjectName(CustomerController.class.getPackageName() + ":type=basic,name=customerController");
+            loadTest.baseUri = URI.create(url);
+            loadTest.run();
+        }
+        finally {
+            if (connectorServer != null) {
+                connectorServer.stop();
+            }
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run() throws Exception {
+        for (int id = 0; id < options.customers(); id++) {
+            post(id);
+        }
+
+        final var pool = Executors.newFixedThreadPool(options.threads(), runnable -> {
+            final var thread = new Thread(runnable, "load-test");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final var interval = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        final var start = System.nanoTime();
+        measuredFrom = start + options.warmup().toNanos();
+        final var end = measuredFrom + options.duration().toNanos();
+
+        long maxLag = 0;
+        for (long intended = start; intended < end; intended += interval) {
+            final var lag = System.nanoTime() - intended;
+            if (lag < 0) {
+                LockSupport.parkNanos(-lag);
+            }
+            else {
+                // behind the schedule: the request keeps its intended start, so the delay is counted against it
+                maxLag = Math.max(maxLag, intended >= measuredFrom ? lag : 0);
+            }
+            submit(pool, nextOperation(), intended);
+        }
+
+        pool.shutdown();
+        if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.out.println("The requests still running after a minute are not reported");
+            pool.shutdownNow();
+        }
+        // the throughput of the scheduled window, the drain of the pool only completes the requests scheduled in it
+        report(end - measuredFrom, maxLag);
+    }
+
+    /**
+     * @return a random operation with the probability of its weight
+     */
+    private Operation nextOperation() {
+        final var value = ThreadLocalRandom.current().nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            final var middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] <= value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return operations[low];
+    }
+
+    private void submit(ExecutorService pool, Operation operation, long intended) {
+        pool.execute(() -> {
+            final var actual = System.nanoTime();
+            var failed = true;
+            try {
+                execute(operation);
+                failed = false;
+            }
+            catch (Exception e) {
+                // counted below, the load goes on
+            }
+            finally {
+                final var now = System.nanoTime();
+                if (intended >= measuredFrom) {
+                    final var recorder = recorders.get(operation);
+                    recorder.latency.record(now - intended);
+                    recorder.serviceTime.record(now - actual);
+                    if (failed) {
+                        recorder.errors.incrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    private void execute(Operation operation) throws Exception {
+        final var id = ThreadLocalRandom.current().nextInt(options.customers());
+        switch (operation) {
+            case GET -> send(HttpRequest.newBuilder(baseUri.resolve("/customers/" + id)).GET());
+            case LIST -> send(HttpRequest.newBuilder(baseUri.resolve("/customers")).GET());
+            case POST -> post(id);
+            case JMX -> jmx.invoke(controllerName, "get", new Object[]{id}, new String[0]);
+        }
+    }
+
+    private void post(int id) throws Exception {
+        final var body = objectMapper.writeValueAsBytes(new Customer(id, "Customer " + id, id % 2 == 0));
+        send(HttpRequest.newBuilder(baseUri.resolve("/customers"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+    }
+
+    private void send(HttpRequest.Builder request) throws Exception {
+        final var response = http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+    }
+
+    private void report(long elapsedNanos, long maxLagNanos) {
+        final var seconds = elapsedNanos / 1e9;
+        System.out.printf("Target rate %.0f/s, measured for %.1fs, the generator was behind by up to %.3fms%n",
+                options.rate(), seconds, maxLagNanos / 1e6);
+        System.out.printf("%-6s %10s %8s %10s %10s %10s %10s %10s %14s%n",
+                "op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "service p99 ms");
+
+        long totalErrors = 0;
+        for (var entry : recorders.entrySet()) {
+            final var latency = entry.getValue().latency.snapshot();
+            if (latency.count() == 0) continue;
+
+            final var errors = entry.getValue().errors.get();
+            totalErrors += errors;
+            print(entry.getKey().name().toLowerCase(Locale.ROOT), latency, errors, seconds, entry.getValue().serviceTime.snapshot().p99());
+        }
+
+        final var all = recorders.values().stream()
+                .map(recorder -> recorder.latency.snapshot())
+                .mapToLong(LatencySnapshot::count)
+                .sum();
+        System.out.printf("%-6s %10d %8d %10.0f%n", "total", all, totalErrors, all / seconds);
+    }
+
+    private static void print(String name, LatencySnapshot latency, long errors, double seconds, long serviceP99) {
+        System.out.printf("%-6s %10d %8d %10.0f %10.3f %10.3f %10.3f %10.3f %14.3f%n",
+                name,
+                latency.count(),
+                errors,
+                latency.count() / seconds,
+                latency.p50() / 1e6,
+                latency.p99() / 1e6,
+                latency.p999() / 1e6,
+                latency.max() / 1e6,
+                serviceP99 / 1e6);
+    }
+}
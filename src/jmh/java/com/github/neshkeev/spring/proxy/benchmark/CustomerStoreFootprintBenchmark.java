@@ -0,0 +1,75 @@
+package com.github.neshkeev.spring.proxy.benchmark;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import com.github.neshkeev.spring.proxy.rest.store.CompactCustomerStore;
+import com.github.neshkeev.spring.proxy.rest.store.CustomerStore;
+import com.github.neshkeev.spring.proxy.rest.store.IndexedCustomerStore;
+import com.github.neshkeev.spring.proxy.rest.store.StripedCustomerStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a store wrapped into the indexes the way the application does and reports how many bytes a customer retains
+ * on the heap plus in direct buffers, see the {@code fill:bytesPerCustomer} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class CustomerStoreFootprintBenchmark {
+
+    @Param({"striped", "compact", "compact-off-heap"})
+    public String layout;
+
+    @Param({"false", "true"})
+    public boolean nameIndex;
+
+    @Param({"1000000"})
+    public int customers;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerCustomer;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bytesPerCustomer = 0;
+        }
+    }
+
+    @Benchmark
+    public CustomerStore fill(Footprint footprint) {
+        final var before = usedMemory();
+
+        final CustomerStore store = new IndexedCustomerStore(switch (layout) {
+            case "striped" -> new StripedCustomerStore();
+            case "compact" -> new CompactCustomerStore(false);
+            case "compact-off-heap" -> new CompactCustomerStore(true);
+            default -> throw new IllegalArgumentException(layout);
+        }, nameIndex);
+        for (int i = 0; i < customers; i++) {
+            store.put(new Customer(i, "Customer " + i, i % 2 == 0));
+        }
+
+        footprint.bytesPerCustomer = (usedMemory() - before) / customers;
+        return store;
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            used += pool.getMemoryUsed();
+        }
+        return used;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.neshkeev.spring.proxy.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshkeev.spring.proxy.jmx.JmxExporter;
+import com.github.neshkeev.spring.proxy.jmx.JmxWrapperInvocationHandler;
+import com.github.neshkeev.spring.proxy.jmx.MBeanInvocable;
+import com.github.neshkeev.spring.proxy.jmx.MBeanUtils;
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import com.github.neshkeev.spring.proxy.rest.CustomerChangesConfiguration;
+import com.github.neshkeev.spring.proxy.rest.CustomerController;
+import com.github.neshkeev.spring.proxy.rest.store.StripedCustomerStore;
+import org.openjdk.jmh.annotations.*;
+
+import javax.management.DynamicMBean;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code list} measures {@code augmentResult} over results of different sizes, the others measure the dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MBeanInvocableBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int customers;
+
+    private MBeanInvocable mBeanInvocable;
+    private CustomerController controller;
+    private DynamicMBean mBean;
+
+    private Object[] getParams;
+    private Object[] addParams;
+    private Object[] noParams;
+
+    @Setup
+    public void setUp() throws Exception {
+        final var objectMapper = new ObjectMapper();
+
+        mBeanInvocable = new MBeanInvocable(objectMapper);
+        controller = new CustomerController(new StripedCustomerStore(), CustomerChangesConfiguration.customersChanged(Duration.ofMillis(100), 10_000));
+        for (int i = 0; i < customers; i++) {
+            controller.add(new Customer(i, "Customer " + i, i % 2 == 0));
+        }
+
+        mBean = (DynamicMBean) Proxy.newProxyInstance(MBeanInvocableBenchmark.class.getClassLoader(),
+                new Class[]{DynamicMBean.class},
+                new JmxWrapperInvocationHandler(mBeanInvocable, controller,
+                        MBeanUtils.mBeanInfo(CustomerController.class),
+                        CustomerController.class.getAnnotation(JmxExporter.class)));
+
+        getParams = new Object[]{0};
+        addParams = new Object[]{objectMapper.writeValueAsString(new Customer(0, "Customer 0", true))};
+        noParams = new Object[0];
+    }
+
+    @Benchmark
+    public Object get() throws Exception {
+        return mBeanInvocable.getResult(controller, "get", getParams);
+    }
+
+    @Benchmark
+    public Object add() throws Exception {
+        return mBeanInvocable.getResult(controller, "add", addParams);
+    }
+
+    @Benchmark
+    public Object list() throws Exception {
+        return mBeanInvocable.getResult(controller, "list", noParams);
+    }
+
+    @Benchmark
+    public Object dynamicMBeanGet() throws Exception {
+        return mBean.invoke("get", getParams, null);
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.neshkeev.spring.proxy.benchmark;
+
+import com.github.neshkeev.spring.proxy.simple.InterceptingProxyFactory;
+import com.github.neshkeev.spring.proxy.simple.Interceptor;
+import com.github.neshkeev.spring.proxy.simple.Interceptors;
+import com.github.neshkeev.spring.proxy.simple.LatencyHistograms;
+import com.github.neshkeev.spring.proxy.simple.LoggerWrapperInvocationHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyDispatchBenchmark {
+
+    public interface Greeter {
+        String greet(String name);
+    }
+
+    public static class SimpleGreeter implements Greeter {
+        @Override
+        public String greet(String name) {
+            return name;
+        }
+    }
+
+    private Greeter direct;
+    private Greeter reflectiveProxy;
+    private Greeter methodHandleProxy;
+    private Greeter meteredProxy;
+    private Greeter nestedProxies;
+    private Greeter fusedProxy;
+    private MethodHandle methodHandle;
+
+    private String name;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        name = "John Snow";
+        direct = new SimpleGreeter();
+        reflectiveProxy = proxy((proxy, method, args) -> method.invoke(direct, args));
+        methodHandleProxy = proxy(new MethodHandleInvocationHandler(direct));
+        meteredProxy = proxy(new LoggerWrapperInvocationHandler<>(direct, new LatencyHistograms(), false));
+
+        // three concerns stacked as nested proxies versus fused into a single proxy
+        nestedProxies = direct;
+        final var interceptors = new ArrayList<Interceptor>();
+        for (int i = 0; i < 3; i++) {
+            final var histograms = new LatencyHistograms();
+            nestedProxies = proxy(new LoggerWrapperInvocationHandler<>(nestedProxies, histograms, false));
+            interceptors.add(Interceptors.latency(histograms));
+        }
+        fusedProxy = InterceptingProxyFactory.proxy(Greeter.class, direct, interceptors);
+        methodHandle = MethodHandles.publicLookup()
+                .findVirtual(Greeter.class, "greet", MethodType.methodType(String.class, String.class))
+                .bindTo(direct);
+    }
+
+    @Benchmark
+    public String directCall() {
+        return direct.greet(name);
+    }
+
+    @Benchmark
+    public String proxyWithMethodInvoke() {
+        return reflectiveProxy.greet(name);
+    }
+
+    @Benchmark
+    public String proxyWithMethodHandle() {
+        return methodHandleProxy.greet(name);
+    }
+
+    @Benchmark
+    public String proxyWithLatencyHistograms() {
+        return meteredProxy.greet(name);
+    }
+
+    @Benchmark
+    public String nestedProxies() {
+        return nestedProxies.greet(name);
+    }
+
+    @Benchmark
+    public String fusedInterceptors() {
+        return fusedProxy.greet(name);
+    }
+
+    @Benchmark
+    public String methodHandle() throws Throwable {
+        return (String) methodHandle.invokeExact(name);
+    }
+
+    private static Greeter proxy(InvocationHandler handler) {
+        return (Greeter) Proxy.newProxyInstance(ProxyDispatchBenchmark.class.getClassLoader(),
+                new Class[]{Greeter.class},
+                handler);
+    }
+
+    private static final class MethodHandleInvocationHandler implements InvocationHandler {
+        private final ConcurrentMap<Method, MethodHandle> handles = new ConcurrentHashMap<>();
+        private final Object delegate;
+
+        private MethodHandleInvocationHandler(Object delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var handle = handles.get(method);
+            if (handle == null) {
+                handle = handles.computeIfAbsent(method, this::spreadInvoker);
+            }
+            return handle.invokeExact(args);
+        }
+
+        private MethodHandle spreadInvoker(Method method) {
+            try {
+                return MethodHandles.publicLookup()
+                        .unreflect(method)
+                        .bindTo(delegate)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            }
+            catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.neshkeev.spring.proxy.ArgumentConversion")
+@Label("JMX Argument Conversion")
+@Category({"Spring Proxy", "JMX"})
+@Description("Decoding a JMX argument into the type of the parameter")
+@StackTrace(false)
+final class ArgumentConversionEvent extends Event {
+    @Label("Parameter Type")
+    Class<?> parameterType;
+
+    @Label("Argument Type")
+    Class<?> argumentType;
+
+    @Label("Payload Size")
+    @Description("The number of the characters of the JSON text, 0 for the open data")
+    long size;
+}
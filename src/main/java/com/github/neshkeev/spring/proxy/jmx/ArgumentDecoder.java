@@ -0,0 +1,238 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Decodes the JMX arguments of one parameter type. A decoder is built once per type:
+ * the primitives and their wrappers are parsed without Jackson, the other types are read with an {@link ObjectReader}
+ * that keeps its root deserializer, and the open data ({@link CompositeData}, its arrays and {@link TabularData}) is read as a tree without printing and parsing JSON text.
+ */
+abstract class ArgumentDecoder {
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            char.class, Character.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class,
+            void.class, Void.class
+    );
+
+    private static final Map<Class<?>, Function<String, Object>> PARSERS = Map.ofEntries(
+            Map.entry(Boolean.class, ArgumentDecoder::parseBoolean),
+            Map.entry(Byte.class, Byte::valueOf),
+            Map.entry(Short.class, Short::valueOf),
+            Map.entry(Integer.class, Integer::valueOf),
+            Map.entry(Long.class, Long::valueOf),
+            Map.entry(Float.class, Float::valueOf),
+            Map.entry(Double.class, Double::valueOf)
+    );
+
+    protected final Class<?> type;
+
+    protected final Class<?> boxedType;
+
+    protected final ObjectReader reader;
+
+    private ArgumentDecoder(Class<?> type, ObjectReader reader) {
+        this.type = type;
+        this.boxedType = WRAPPERS.getOrDefault(type, type);
+        this.reader = reader;
+    }
+
+    static ArgumentDecoder of(Class<?> type, ObjectMapper objectMapper) {
+        final var reader = objectMapper.readerFor(type);
+
+        final var parser = PARSERS.get(WRAPPERS.getOrDefault(type, type));
+        if (parser != null) return new Parsed(type, reader, parser);
+
+        if (type == String.class || type.isPrimitive()) return new Text(type, reader);
+
+        return new Tree(type, reader, objectMapper.getNodeFactory());
+    }
+
+    /**
+     * @return if the arguments of the JMX type can be decoded
+     */
+    boolean accepts(Class<?> jmxType) {
+        return isSameType(jmxType) || jmxType == String.class;
+    }
+
+    /**
+     * @return if the arguments of the JMX type are passed as they are
+     */
+    boolean isSameType(Class<?> jmxType) {
+        return jmxType == type || jmxType == boxedType;
+    }
+
+    Object decode(Object param) throws JsonProcessingException {
+        if (param == null || isSameType(param.getClass())) return param;
+
+        final var event = new ArgumentConversionEvent();
+        event.begin();
+
+        final var result = convert(param);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.parameterType = type;
+            event.argumentType = param.getClass();
+            event.size = param instanceof String text ? text.length() : 0;
+            event.commit();
+        }
+        return result;
+    }
+
+    Object convert(Object param) throws JsonProcessingException {
+        return decodeText(param.toString());
+    }
+
+    Object decodeText(String param) throws JsonProcessingException {
+        return reader.readValue(param);
+    }
+
+    private static Object parseBoolean(String value) {
+        if ("true".equals(value)) return Boolean.TRUE;
+        if ("false".equals(value)) return Boolean.FALSE;
+        throw new NumberFormatException(value);
+    }
+
+    private static final class Text extends ArgumentDecoder {
+        private Text(Class<?> type, ObjectReader reader) {
+            super(type, reader);
+        }
+    }
+
+    private static final class Parsed extends ArgumentDecoder {
+        private final Function<String, Object> parser;
+
+        private Parsed(Class<?> type, ObjectReader reader, Function<String, Object> parser) {
+            super(type, reader);
+            this.parser = parser;
+        }
+
+        @Override
+        Object decodeText(String param) throws JsonProcessingException {
+            try {
+                return parser.apply(param);
+            }
+            catch (NumberFormatException e) {
+                // the quoted, padded or fractional numbers are left to the lenient Jackson coercions
+                return super.decodeText(param);
+            }
+        }
+    }
+
+    private static final class Tree extends ArgumentDecoder {
+        private final JsonNodeFactory nodes;
+
+        private Tree(Class<?> type, ObjectReader reader, JsonNodeFactory nodes) {
+            super(type, reader);
+            this.nodes = nodes;
+        }
+
+        @Override
+        boolean accepts(Class<?> jmxType) {
+            return super.accepts(jmxType) || isOpenData(jmxType);
+        }
+
+        @Override
+        Object convert(Object param) throws JsonProcessingException {
+            if (isOpenData(param.getClass())) {
+                try {
+                    return reader.readValue(toNode(param));
+                }
+                catch (JsonProcessingException e) {
+                    throw e;
+                }
+                catch (IOException e) {
+                    throw new IllegalArgumentException(e);
+                }
+            }
+            return super.convert(param);
+        }
+
+        private static boolean isOpenData(Class<?> jmxType) {
+            return CompositeData.class.isAssignableFrom(jmxType)
+                    || TabularData.class.isAssignableFrom(jmxType)
+                    || CompositeData[].class.isAssignableFrom(jmxType);
+        }
+
+        private JsonNode toNode(Object value) {
+            if (value == null) return nodes.nullNode();
+
+            if (value instanceof CompositeData composite) {
+                final var node = nodes.objectNode();
+                for (String key : composite.getCompositeType().keySet()) {
+                    node.set(key, toNode(composite.get(key)));
+                }
+                return node;
+            }
+
+            if (value instanceof TabularData tabular) {
+                return toNode(tabular);
+            }
+
+            if (value.getClass().isArray()) {
+                final var node = nodes.arrayNode();
+                for (int i = 0, length = Array.getLength(value); i < length; i++) {
+                    node.add(toNode(Array.get(value, i)));
+                }
+                return node;
+            }
+
+            if (value instanceof String string) return nodes.textNode(string);
+            if (value instanceof Boolean bool) return nodes.booleanNode(bool);
+            if (value instanceof Integer number) return nodes.numberNode(number);
+            if (value instanceof Long number) return nodes.numberNode(number);
+            if (value instanceof Short number) return nodes.numberNode(number);
+            if (value instanceof Byte number) return nodes.numberNode(number);
+            if (value instanceof Double number) return nodes.numberNode(number);
+            if (value instanceof Float number) return nodes.numberNode(number);
+            if (value instanceof BigDecimal number) return nodes.numberNode(number);
+            if (value instanceof BigInteger number) return nodes.numberNode(number);
+
+            return nodes.textNode(value.toString());
+        }
+
+        /**
+         * The key-value rows of the maps become objects, the other tables become arrays of their rows
+         */
+        private JsonNode toNode(TabularData tabular) {
+            final var rowType = tabular.getTabularType().getRowType();
+            final var indexNames = tabular.getTabularType().getIndexNames();
+
+            if (rowType.keySet().size() == 2 && indexNames.equals(List.of("key")) && rowType.containsKey("value")) {
+                final var node = nodes.objectNode();
+                for (Object row : tabular.values()) {
+                    final var composite = (CompositeData) row;
+                    node.set(String.valueOf(composite.get("key")), toNode(composite.get("value")));
+                }
+                return node;
+            }
+
+            final var node = nodes.arrayNode();
+            for (Object row : tabular.values()) {
+                node.add(toNode(row));
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.management.MBeanNotificationInfo;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.ObjectName;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces the ids of changed entities over a window and emits them as one {@link Notification}
+ * whose user data is the array of the ids, so JMX clients can subscribe to the changes instead of polling snapshots.
+ * The first change of a window schedules the notification, the following changes of the window only join it.
+ * A window keeps at most {@code maxPending} ids: a window with more changes, e.g. a bulk import or a listener
+ * that holds the thread back, is announced by one notification without user data, its listeners reload what they track.
+ * <p>
+ * Every emitter delivers its notifications on its own thread, so a slow listener holds back only the emitter
+ * it listens to. The owner closes it along with itself, the changes made before that are delivered right away.
+ */
+public class ChangeNotifications extends NotificationBroadcasterSupport implements AutoCloseable {
+    private final ScheduledThreadPoolExecutor flusher;
+
+    private final String type;
+
+    private final long windowNanos;
+
+    private final int maxPending;
+
+    private final Set<Object> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile Object source = this;
+
+    private volatile boolean closed;
+
+    public ChangeNotifications(String type, String description, Duration window, int maxPending) {
+        super(new MBeanNotificationInfo(new String[]{type}, Notification.class.getName(), description));
+        this.type = type;
+        this.windowNanos = Math.max(0, window.toNanos());
+        this.maxPending = maxPending;
+        this.flusher = new ScheduledThreadPoolExecutor(1, r -> {
+            final var thread = new Thread(r, "jmx-change-notifications-" + type);
+            thread.setDaemon(true);
+            return thread;
+        });
+        // the close flushes the pending changes itself instead of waiting for the window
+        flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public String type() {
+        return type;
+    }
+
+    public void changed(Object id) {
+        if (closed) return;
+
+        if (overflowed.get() || pending.size() >= maxPending && !pending.contains(id)) {
+            overflowed.set(true);
+        }
+        else {
+            pending.add(id);
+        }
+        if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                // closed, the changes aren't announced anymore
+            }
+        }
+    }
+
+    /**
+     * Delivers the pending changes without waiting for the window and stops the thread of the emitter.
+     * Waits a second at most for a slow listener, so the thread is normally gone when the owner is
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            flusher.execute(this::flush);
+        }
+        catch (RejectedExecutionException e) {
+            // closed already
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The notifications come from the name of the MBean once it's registered
+     */
+    void source(ObjectName name) {
+        this.source = name;
+    }
+
+    private void flush() {
+        // a change that finds the flag set was added before the flag is reset, so the drain below sees it
+        scheduled.set(false);
+
+        final var ids = new ArrayList<>(pending.size());
+        for (Object id : pending) {
+            if (pending.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        final Notification notification;
+        if (overflowed.getAndSet(false)) {
+            notification = new Notification(type, source, sequence.incrementAndGet(), System.currentTimeMillis(),
+                    "More than " + maxPending + " changed");
+        }
+        else {
+            if (ids.isEmpty()) return;
+
+            notification = new Notification(type, source, sequence.incrementAndGet(), System.currentTimeMillis(),
+                    ids.size() + " changed");
+            notification.setUserData(ids.toArray());
+        }
+        sendNotification(notification);
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dispatch plans per (class, action name, argument-type signature).
+ * Plans of the same action are kept in a small copy-on-write array, so a lookup is a scan without allocations.
+ */
+final class DispatchCache {
+    private static final DispatchPlan[] NO_PLANS = new DispatchPlan[0];
+
+    private final ClassValue<ConcurrentMap<String, DispatchPlan[]>> plans = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<String, DispatchPlan[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    DispatchPlan find(Class<?> type, String actionName, Object[] params) {
+        final var candidates = plans.get(type).getOrDefault(actionName, NO_PLANS);
+        for (DispatchPlan plan : candidates) {
+            if (plan.matches(params)) return plan;
+        }
+        return null;
+    }
+
+    void put(Class<?> type, String actionName, DispatchPlan plan) {
+        plans.get(type).merge(actionName, new DispatchPlan[]{plan}, (current, added) -> {
+            final var result = Arrays.copyOf(current, current.length + 1);
+            result[current.length] = added[0];
+            return result;
+        });
+    }
+
+    void invalidate(Class<?> type) {
+        plans.remove(type);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import javax.management.openmbean.OpenDataException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A resolved overload of a JMX operation for one argument-type signature.
+ * The target method is pre-bound to a spreading {@link MethodHandle}, so the steady state invocation
+ * does neither reflection lookups nor array allocations unless some arguments must be converted.
+ */
+final class DispatchPlan {
+
+    @FunctionalInterface
+    interface ArgumentConverter {
+        Object convert(Object jmxParam) throws JsonProcessingException;
+    }
+
+    @FunctionalInterface
+    interface ResultConverter {
+        Object convert(Object result) throws JsonProcessingException, OpenDataException;
+    }
+
+    private final Class<?>[] signature;
+    private final Method method;
+    private final MethodHandle invoker;
+    private final ArgumentConverter[] converters;
+    private final ResultConverter resultConverter;
+    private final boolean passThrough;
+
+    DispatchPlan(Class<?>[] signature, Method method, ArgumentConverter[] converters, ResultConverter resultConverter) {
+        this.signature = signature;
+        this.method = method;
+        this.invoker = spreadInvoker(method);
+        this.converters = converters;
+        this.resultConverter = resultConverter;
+
+        var passThrough = true;
+        for (ArgumentConverter converter : converters) {
+            passThrough &= converter == null;
+        }
+        this.passThrough = passThrough;
+    }
+
+    Method method() {
+        return method;
+    }
+
+    boolean matches(Object[] params) {
+        if (params.length != signature.length) return false;
+
+        for (int i = 0; i < params.length; i++) {
+            final var param = params[i];
+            final var expected = signature[i];
+
+            if (param == null ? expected != null : param.getClass() != expected) return false;
+        }
+        return true;
+    }
+
+    Object invoke(Object target, Object[] params) throws ReflectiveOperationException, JsonProcessingException {
+        final var args = passThrough ? params : convert(params);
+
+        if (invoker == null) {
+            return method.invoke(target, args);
+        }
+
+        try {
+            return invoker.invokeExact(target, args);
+        }
+        catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    Object convertResult(Object result) throws JsonProcessingException, OpenDataException {
+        return resultConverter.convert(result);
+    }
+
+    private Object[] convert(Object[] params) throws JsonProcessingException {
+        final var args = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            final var converter = converters[i];
+            args[i] = converter == null || params[i] == null ? params[i] : converter.convert(params[i]);
+        }
+        return args;
+    }
+
+    static Class<?>[] signatureOf(Object[] params) {
+        final var signature = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            signature[i] = params[i] == null ? null : params[i].getClass();
+        }
+        return signature;
+    }
+
+    private static MethodHandle spreadInvoker(Method method) {
+        try {
+            final var parameterCount = method.getParameterCount();
+            return MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        }
+        catch (IllegalAccessException e) {
+            // the declaring class isn't public, so fallback to the reflective call
+            return null;
+        }
+    }
+}
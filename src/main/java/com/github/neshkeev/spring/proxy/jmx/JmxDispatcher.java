@@ -0,0 +1,51 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import javax.management.openmbean.OpenDataException;
+
+/**
+ * Calls the operations of an exported type without reflection: a switch over the operation names calls the bean directly
+ * and the arguments are decoded by the declared parameter types. {@link JmxExporterProcessor} generates an implementation
+ * named {@code <binary name of the type>}{@value #SUFFIX} for every {@link JmxExporter} type.
+ */
+public interface JmxDispatcher {
+    String SUFFIX = "$$JmxDispatcher";
+
+    /**
+     * Returned when none of the operations accepts the arguments
+     */
+    Object NO_MATCH = new Object();
+
+    /**
+     * @return the names of the operations, the position of an operation is its index passed to {@link Context#result}
+     */
+    String[] names();
+
+    /**
+     * @return the parameter types of the operations in the order of {@link #names()}
+     */
+    Class<?>[][] parameterTypes();
+
+    /**
+     * @throws java.lang.reflect.InvocationTargetException if the operation throws
+     */
+    Object invoke(Object target, String action, Object[] params, Context context)
+            throws ReflectiveOperationException, JsonProcessingException, OpenDataException;
+
+    interface Context {
+        /**
+         * @return whether the JMX argument can be passed as a parameter of the type, either as it is or decoded from JSON or {@code CompositeData}
+         */
+        boolean accepts(Object param, Class<?> type);
+
+        /**
+         * Called once the operation that accepts the arguments is picked, before the arguments are decoded
+         */
+        void resolved(int operation);
+
+        <T> T decode(Object param, Class<T> type) throws JsonProcessingException;
+
+        Object result(int operation, Object result) throws JsonProcessingException, OpenDataException;
+    }
+}
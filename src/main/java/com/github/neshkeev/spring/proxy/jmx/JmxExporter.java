@@ -9,4 +9,56 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface JmxExporter {
     String name() default "";
+
+    /**
+     * Whether the operations of the bean may be invoked concurrently, e.g. by a parallel {@code invokeBatch}
+     */
+    boolean threadSafe() default false;
+
+    /**
+     * How the results of the operations are passed to JMX clients
+     */
+    Mapping mapping() default Mapping.JSON;
+
+    /**
+     * Where the operations run, the {@link Execution#ASYNC} mode adds the {@code submit} and {@code fetch} operations
+     */
+    Execution execution() default Execution.CALLER;
+
+    /**
+     * How long an {@link Execution#ASYNC} operation may run, non-positive means forever
+     */
+    long timeoutMillis() default 0;
+
+    /**
+     * How many {@link Execution#ASYNC} operations of the bean may run at once, non-positive means unlimited
+     */
+    int maxConcurrency() default 0;
+
+    /**
+     * Whether a placeholder MBean is registered on start and the invocation machinery is built on its first access
+     */
+    boolean lazy() default false;
+
+    enum Mapping {
+        /**
+         * Every non {@code java.lang} result becomes a JSON string, collections become lists of JSON strings
+         */
+        JSON,
+        /**
+         * Results become open types, e.g. records become {@code CompositeData}, the types that can't be mapped fall back to JSON
+         */
+        OPEN_TYPE
+    }
+
+    enum Execution {
+        /**
+         * Operations run on the thread of the JMX connection
+         */
+        CALLER,
+        /**
+         * Operations run on virtual threads if the JDK supports them or on a shared pool of daemon threads otherwise
+         */
+        ASYNC
+    }
 }
@@ -0,0 +1,54 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The names of the {@link JmxExporter} types collected by {@link JmxExporterProcessor} from all the index files on the classpath
+ */
+final class JmxExporterIndex {
+    private final Set<String> exporters;
+
+    private JmxExporterIndex(Set<String> exporters) {
+        this.exporters = exporters;
+    }
+
+    /**
+     * @return the index or {@code null} if the sources were compiled without the processor
+     */
+    static JmxExporterIndex load(ClassLoader classLoader) {
+        try {
+            final var resources = classLoader.getResources(JmxExporterProcessor.INDEX);
+            if (!resources.hasMoreElements()) return null;
+
+            final var exporters = new HashSet<String>();
+            for (URL resource : Collections.list(resources)) {
+                try (var reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                            .map(String::strip)
+                            .filter(line -> !line.isEmpty())
+                            .forEach(exporters::add);
+                }
+            }
+            return new JmxExporterIndex(Set.copyOf(exporters));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Set<String> exporters() {
+        return exporters;
+    }
+
+    boolean contains(Class<?> type) {
+        return exporters.contains(type.getName());
+    }
+}
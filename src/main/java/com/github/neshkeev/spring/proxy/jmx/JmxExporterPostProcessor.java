@@ -2,20 +2,26 @@ package com.github.neshkeev.spring.proxy.jmx;
 
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import javax.management.DynamicMBean;
+import javax.management.NotificationEmitter;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 
 @Component
+@ImportRuntimeHints(JmxRuntimeHints.class)
 public class JmxExporterPostProcessor implements BeanPostProcessor {
     private final MBeanInvocable mBeanInvocable;
 
+    private final JmxExporterIndex index = JmxExporterIndex.load(JmxExporterPostProcessor.class.getClassLoader());
+
     @Lazy
     public JmxExporterPostProcessor(MBeanInvocable mBeanInvocable) {
         this.mBeanInvocable = mBeanInvocable;
@@ -29,6 +35,9 @@ public class JmxExporterPostProcessor implements BeanPostProcessor {
 
     private void registerMBean(Object bean, String beanName) {
         final Class<?> aClass = bean.getClass();
+        // the index built at compile time saves looking for the annotation on every bean
+        if (index != null && !index.contains(aClass)) return;
+
         final var annotation = aClass.getAnnotation(JmxExporter.class);
         if (annotation == null) return;
 
@@ -40,18 +49,44 @@ public class JmxExporterPostProcessor implements BeanPostProcessor {
             final var objectName = new ObjectName(aClass.getPackageName() + ":type=basic,name=" + name);
 
             final var platformMBeanServer = ManagementFactory.getPlatformMBeanServer();
-            final var proxy = getDynamicMBean(bean);
-            platformMBeanServer.registerMBean(proxy, objectName);
+            if (platformMBeanServer.isRegistered(objectName)) {
+                platformMBeanServer.unregisterMBean(objectName);
+            }
+
+            final var notifications = bean instanceof NotificationSource source ? source.changeNotifications() : null;
+            if (notifications != null) {
+                notifications.source(objectName);
+            }
+
+            if (annotation.lazy()) {
+                final var handler = new LazyMBeanInvocationHandler(aClass, () -> newInvocationHandler(bean, objectName, annotation, notifications));
+                platformMBeanServer.registerMBean(getDynamicMBean(handler, notifications != null), objectName);
+                handler.registered();
+            }
+            else {
+                platformMBeanServer.registerMBean(getDynamicMBean(newInvocationHandler(bean, objectName, annotation, notifications), notifications != null), objectName);
+            }
         }
         catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
-    private DynamicMBean getDynamicMBean(Object bean) {
+    private JmxWrapperInvocationHandler newInvocationHandler(Object bean, ObjectName objectName, JmxExporter annotation,
+                                                             ChangeNotifications notifications) {
+        final Class<?> aClass = bean.getClass();
+        mBeanInvocable.invalidate(aClass);
+
+        final var mBeanInfo = notifications == null
+                ? MBeanUtils.mBeanInfo(aClass)
+                : MBeanUtils.mBeanInfo(aClass, notifications.getNotificationInfo());
+        return new JmxWrapperInvocationHandler(mBeanInvocable, bean, objectName.toString(), mBeanInfo, annotation, notifications);
+    }
+
+    private DynamicMBean getDynamicMBean(InvocationHandler handler, boolean emitter) {
         return (DynamicMBean) Proxy.newProxyInstance(
                 JmxExporterPostProcessor.class.getClassLoader(),
-                new Class[]{DynamicMBean.class},
-                new JmxWrapperInvocationHandler(mBeanInvocable, bean));
+                emitter ? new Class[]{DynamicMBean.class, NotificationEmitter.class} : new Class[]{DynamicMBean.class},
+                handler);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,259 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the binary names of the types annotated with {@link JmxExporter} to {@value #INDEX},
+ * so {@link JmxExporterPostProcessor} doesn't have to look for the annotation on every bean,
+ * and generates a {@link JmxDispatcher} for every such type.
+ * The processor has no compile-time dependencies on the rest of the sources, it's compiled first, see the pom.
+ */
+@SupportedAnnotationTypes(JmxExporterProcessor.ANNOTATION)
+public class JmxExporterProcessor extends AbstractProcessor {
+    static final String INDEX = "META-INF/jmx-exporters.idx";
+
+    static final String ANNOTATION = "com.github.neshkeev.spring.proxy.jmx.JmxExporter";
+
+    private static final String DISPATCHER = "com.github.neshkeev.spring.proxy.jmx.JmxDispatcher";
+
+    private static final String DISPATCHER_SUFFIX = "$$JmxDispatcher";
+
+    private final Set<String> exporters = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement type) {
+                    exporters.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                    if (isDispatchable(type)) {
+                        writeDispatcher(type);
+                    }
+                }
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        keepPreviouslyIndexed();
+        if (exporters.isEmpty()) return;
+
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = index.openWriter()) {
+                for (String exporter : exporters) {
+                    writer.write(exporter);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write " + INDEX + ": " + e);
+        }
+    }
+
+    /**
+     * An incremental build compiles only the changed sources, the exporters among the rest are kept in the index
+     */
+    private void keepPreviouslyIndexed() {
+        try {
+            final var previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (BufferedReader reader = new BufferedReader(previous.openReader(true))) {
+                final var elements = processingEnv.getElementUtils();
+                reader.lines()
+                        .filter(name -> !name.isBlank())
+                        .filter(name -> {
+                            final var type = elements.getTypeElement(name.replace('$', '.'));
+                            return type != null && type.getAnnotationMirrors().stream()
+                                    .anyMatch(a -> ANNOTATION.equals(a.getAnnotationType().toString()));
+                        })
+                        .forEach(exporters::add);
+            }
+        }
+        catch (IOException | IllegalArgumentException e) {
+            // there is no index from a previous build
+        }
+    }
+
+    /**
+     * The beans are instances of classes, the generated dispatcher lives in the same package and must see the type
+     */
+    private static boolean isDispatchable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD) return false;
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) return false;
+        }
+        return true;
+    }
+
+    private void writeDispatcher(TypeElement type) {
+        final var elements = processingEnv.getElementUtils();
+        final var types = processingEnv.getTypeUtils();
+
+        final var packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        final var binaryName = elements.getBinaryName(type).toString();
+        final var simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + DISPATCHER_SUFFIX;
+        final var typeName = types.erasure(type.asType()).toString();
+
+        final Map<String, List<ExecutableElement>> operations = new LinkedHashMap<>();
+        final var object = elements.getTypeElement(Object.class.getName());
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            // the methods of Object aren't operations, they are left to the reflective dispatch
+            if (method.getEnclosingElement().equals(object)) continue;
+
+            if (method.getModifiers().contains(Modifier.PUBLIC) && throwsOnlyExceptions(method)) {
+                operations.computeIfAbsent(method.getSimpleName().toString(), name -> new ArrayList<>()).add(method);
+            }
+        }
+
+        try {
+            final var source = processingEnv.getFiler().createSourceFile(
+                    packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type);
+
+            try (var out = new PrintWriter(source.openWriter())) {
+                if (!packageName.isEmpty()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+                out.println("/**");
+                out.println(" * Generated by {@code " + JmxExporterProcessor.class.getName() + "} for {@link " + typeName + "}");
+                out.println(" */");
+                out.println("public final class " + simpleName + " implements " + DISPATCHER + " {");
+
+                final var names = new StringBuilder();
+                final var parameterTypes = new StringBuilder();
+                final var cases = new StringBuilder();
+
+                int index = 0;
+                for (var entry : operations.entrySet()) {
+                    cases.append("            case \"").append(entry.getKey()).append("\" -> {\n");
+                    for (ExecutableElement method : entry.getValue()) {
+                        names.append(index == 0 ? "" : ", ").append('"').append(entry.getKey()).append('"');
+                        parameterTypes.append(index == 0 ? "" : ",\n").append("            {");
+                        appendCall(cases, parameterTypes, typeName, method, index++);
+                        parameterTypes.append('}');
+                    }
+                    cases.append("            }\n");
+                }
+
+                out.println("    private static final String[] NAMES = {" + names + "};");
+                out.println();
+                out.println("    private static final Class<?>[][] PARAMETER_TYPES = {");
+                out.println(parameterTypes);
+                out.println("    };");
+                out.println();
+                out.println("    @Override");
+                out.println("    public String[] names() {");
+                out.println("        return NAMES.clone();");
+                out.println("    }");
+                out.println();
+                out.println("    @Override");
+                out.println("    public Class<?>[][] parameterTypes() {");
+                out.println("        return PARAMETER_TYPES.clone();");
+                out.println("    }");
+                out.println();
+                out.println("    @Override");
+                out.println("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+                out.println("    public Object invoke(Object target, String action, Object[] params, Context context)");
+                out.println("            throws ReflectiveOperationException, com.fasterxml.jackson.core.JsonProcessingException, javax.management.openmbean.OpenDataException {");
+                out.println("        final var bean = (" + typeName + ") target;");
+                out.println("        switch (action) {");
+                out.print(cases);
+                out.println("            default -> {");
+                out.println("            }");
+                out.println("        }");
+                out.println("        return NO_MATCH;");
+                out.println("    }");
+                out.println("}");
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to generate " + simpleName + ": " + e, type);
+        }
+    }
+
+    private void appendCall(StringBuilder cases, StringBuilder parameterTypes, String typeName, ExecutableElement method, int index) {
+        final var types = processingEnv.getTypeUtils();
+        final var parameters = method.getParameters();
+
+        final var condition = new StringBuilder("params.length == ").append(parameters.size());
+        final var decoded = new StringBuilder();
+        final var arguments = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            final var literal = types.erasure(parameters.get(i).asType()) + ".class";
+
+            parameterTypes.append(i == 0 ? "" : ", ").append(literal);
+            condition.append("\n                        && context.accepts(params[").append(i).append("], ").append(literal).append(')');
+            decoded.append("                    final var a").append(i)
+                    .append(" = context.decode(params[").append(i).append("], ").append(literal).append(");\n");
+            arguments.append(i == 0 ? "" : ", ").append('a').append(i);
+        }
+
+        final var receiver = method.getModifiers().contains(Modifier.STATIC) ? typeName : "bean";
+        final var call = receiver + "." + method.getSimpleName() + "(" + arguments + ")";
+        final var isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+
+        cases.append("                if (").append(condition).append(") {\n")
+                .append("                    context.resolved(").append(index).append(");\n")
+                .append(decoded)
+                .append("                    final Object result;\n")
+                .append("                    try {\n")
+                .append("                        ").append(isVoid ? call + ";\n                        result = null;\n" : "result = " + call + ";\n")
+                .append("                    }\n")
+                .append("                    catch (Throwable e) {\n")
+                .append("                        throw new java.lang.reflect.InvocationTargetException(e);\n")
+                .append("                    }\n")
+                .append("                    return context.result(").append(index).append(", result);\n")
+                .append("                }\n");
+    }
+
+    /**
+     * The generated call can't rethrow a checked {@link Throwable} that isn't an {@link Exception}
+     */
+    private boolean throwsOnlyExceptions(ExecutableElement method) {
+        final var elements = processingEnv.getElementUtils();
+        final var types = processingEnv.getTypeUtils();
+        final TypeMirror exception = elements.getTypeElement(Exception.class.getName()).asType();
+        final TypeMirror error = elements.getTypeElement(Error.class.getName()).asType();
+
+        for (TypeMirror thrown : method.getThrownTypes()) {
+            if (!types.isAssignable(thrown, exception) && !types.isAssignable(thrown, error)) return false;
+        }
+        return true;
+    }
+}
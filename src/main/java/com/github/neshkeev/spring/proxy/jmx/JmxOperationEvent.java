@@ -0,0 +1,27 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.neshkeev.spring.proxy.JmxOperation")
+@Label("JMX Operation")
+@Category({"Spring Proxy", "JMX"})
+@Description("An operation invoked on an exported MBean, including the resolution, the conversions and the serialization")
+@StackTrace(false)
+final class JmxOperationEvent extends Event {
+    @Label("MBean")
+    String bean;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Parameters")
+    int parameters;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,32 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.neshkeev.spring.proxy.JmxResolution")
+@Label("JMX Operation Resolution")
+@Category({"Spring Proxy", "JMX"})
+@Description("Looking up the method of a JMX operation by the name and the argument types")
+@StackTrace(false)
+final class JmxResolutionEvent extends Event {
+    @Label("Type")
+    Class<?> type;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Method")
+    String method;
+
+    @Label("Cached")
+    @Description("Whether the method was found in the dispatch cache")
+    boolean cached;
+
+    @Label("Generated")
+    @Description("Whether the method was picked by the generated dispatcher, its switch over the names isn't timed")
+    boolean generated;
+}
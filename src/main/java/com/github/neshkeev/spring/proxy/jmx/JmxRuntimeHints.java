@@ -0,0 +1,34 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import javax.management.DynamicMBean;
+import javax.management.NotificationEmitter;
+
+/**
+ * Lets a native image register the exported beans: the index, the generated dispatchers and the members
+ * {@link MBeanUtils} introspects to build the {@link javax.management.MBeanInfo}
+ */
+class JmxRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern(JmxExporterProcessor.INDEX);
+        hints.proxies().registerJdkProxy(DynamicMBean.class);
+        hints.proxies().registerJdkProxy(DynamicMBean.class, NotificationEmitter.class);
+
+        final var index = JmxExporterIndex.load(classLoader);
+        if (index == null) return;
+
+        for (String exporter : index.exporters()) {
+            hints.reflection()
+                    .registerType(TypeReference.of(exporter),
+                            MemberCategory.INTROSPECT_DECLARED_METHODS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                    .registerType(TypeReference.of(exporter + JmxDispatcher.SUFFIX),
+                            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.github.neshkeev.spring.proxy.jmx;
 
-import javax.management.MBeanAttributeInfo;
-import javax.management.MBeanConstructorInfo;
+import javax.management.Attribute;
+import javax.management.AttributeList;
 import javax.management.MBeanInfo;
-import javax.management.MBeanNotificationInfo;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 public class JmxWrapperInvocationHandler implements InvocationHandler {
 
@@ -13,31 +18,149 @@ public class JmxWrapperInvocationHandler implements InvocationHandler {
 
     private final Object bean;
 
-    public JmxWrapperInvocationHandler(MBeanInvocable mBeanInvocable, Object bean) {
+    private final MBeanInfo mBeanInfo;
+
+    private final boolean threadSafe;
+
+    private final MBeanAttributes attributes;
+
+    private final OperationExecutor executor;
+
+    private final ChangeNotifications notifications;
+
+    private final String name;
+
+    public JmxWrapperInvocationHandler(MBeanInvocable mBeanInvocable, Object bean, MBeanInfo mBeanInfo, JmxExporter settings) {
+        this(mBeanInvocable, bean, mBeanInfo.getClassName(), mBeanInfo, settings, null);
+    }
+
+    /**
+     * @param name the name of the MBean the flight recorder events refer to
+     * @param notifications the emitter the {@code NotificationEmitter} methods of the proxy are delegated to
+     */
+    public JmxWrapperInvocationHandler(MBeanInvocable mBeanInvocable, Object bean, String name, MBeanInfo mBeanInfo,
+                                       JmxExporter settings, ChangeNotifications notifications) {
         this.mBeanInvocable = mBeanInvocable;
         this.bean = bean;
+        this.name = name;
+        this.mBeanInfo = mBeanInfo;
+        this.threadSafe = settings.threadSafe();
+        this.attributes = new MBeanAttributes(bean, mBeanInfo);
+        this.executor = settings.execution() == JmxExporter.Execution.ASYNC
+                ? new OperationExecutor(settings.maxConcurrency(), settings.timeoutMillis())
+                : null;
+        this.notifications = notifications;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         return switch (method.getName()) {
-            case "getAttribute", "setAttribute", "getAttributes", "setAttributes" -> null;
-            case "getMBeanInfo" ->
-                    new MBeanInfo(bean.getClass().getName(),
-                            bean.getClass().getName(),
-                            new MBeanAttributeInfo[0],
-                            new MBeanConstructorInfo[0],
-                            MBeanUtils.operations(bean.getClass()),
-                            new MBeanNotificationInfo[0]);
+            case "getAttribute" -> attributes.getAttribute((String) args[0]);
+            case "getAttributes" -> attributes.getAttributes((String[]) args[0]);
+            case "setAttribute" -> {
+                attributes.setAttribute((Attribute) args[0]);
+                yield null;
+            }
+            case "setAttributes" -> attributes.setAttributes((AttributeList) args[0]);
+            case "getMBeanInfo" -> mBeanInfo;
             case "invoke" -> invoke(args);
+            case "addNotificationListener", "removeNotificationListener", "getNotificationInfo" -> notify(method, args);
             default -> throw new UnsupportedOperationException(method.getName());
         };
     }
 
+    private Object notify(Method method, Object[] args) throws Throwable {
+        if (notifications == null) throw new UnsupportedOperationException(method.getName());
+
+        try {
+            return method.invoke(notifications, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
     private Object invoke(Object[] args) throws Exception {
         final var actionName = (String) args[0];
         final var params = (Object[]) args[1];
 
-        return mBeanInvocable.getResult(bean, actionName, params);
+        if (executor == null) {
+            return invokeOperation(actionName, params);
+        }
+
+        return switch (actionName) {
+            case MBeanUtils.SUBMIT -> executor.submit(() -> invokeOperation((String) params[0], (Object[]) params[1]));
+            case MBeanUtils.FETCH -> executor.fetch((String) params[0]);
+            default -> executor.execute(() -> invokeOperation(actionName, params));
+        };
+    }
+
+    private Object invokeOperation(String actionName, Object[] params) throws Exception {
+        final var counters = attributes.statistics().get(actionName);
+        final var event = new JmxOperationEvent();
+        event.begin();
+        final var start = System.nanoTime();
+        var failed = true;
+        try {
+            final var result = MBeanUtils.INVOKE_BATCH.equals(actionName)
+                    ? invokeBatch(params)
+                    : mBeanInvocable.getResult(bean, actionName, params);
+            failed = false;
+            return result;
+        }
+        finally {
+            if (counters != null) {
+                counters.record(start, failed);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.bean = name;
+                event.operation = actionName;
+                event.parameters = params == null ? 0 : params.length;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private List<Map<String, Object>> invokeBatch(Object[] params) {
+        final var actions = (String[]) params[0];
+        final var actionParams = (Object[]) params[1];
+        final var parallel = params.length > 2 && Boolean.TRUE.equals(params[2]);
+
+        if (actions.length != actionParams.length) {
+            throw new IllegalArgumentException("Got " + actions.length + " actions, but " + actionParams.length + " params");
+        }
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object>[] results = new Map[actions.length];
+
+        final var entries = IntStream.range(0, actions.length);
+        (parallel && threadSafe ? entries.parallel() : entries)
+                .forEach(i -> results[i] = invokeBatchEntry(actions[i], (Object[]) actionParams[i]));
+
+        return Arrays.asList(results);
+    }
+
+    private Map<String, Object> invokeBatchEntry(String actionName, Object[] params) {
+        final var result = new HashMap<String, Object>(4);
+        result.put("action", actionName);
+
+        final var counters = attributes.statistics().get(actionName);
+        final var start = System.nanoTime();
+        try {
+            result.put("result", mBeanInvocable.getResult(bean, actionName, params == null ? new Object[0] : params));
+        }
+        catch (Exception e) {
+            final var cause = e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+            result.put("error", cause.toString());
+        }
+        finally {
+            if (counters != null) {
+                counters.record(start, result.containsKey("error"));
+            }
+        }
+        return result;
     }
 }
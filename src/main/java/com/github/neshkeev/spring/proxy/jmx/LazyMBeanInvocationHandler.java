@@ -0,0 +1,60 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.management.ImmutableDescriptor;
+import javax.management.MBeanInfo;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * A placeholder of an MBean: it is registered with a bare {@link MBeanInfo} and builds
+ * the actual {@link JmxWrapperInvocationHandler} on the first access after the registration.
+ */
+final class LazyMBeanInvocationHandler implements InvocationHandler {
+    private final Supplier<JmxWrapperInvocationHandler> factory;
+
+    private final MBeanInfo placeholder;
+
+    private volatile boolean registered;
+
+    private volatile JmxWrapperInvocationHandler delegate;
+
+    LazyMBeanInvocationHandler(Class<?> type, Supplier<JmxWrapperInvocationHandler> factory) {
+        this.factory = factory;
+        this.placeholder = new MBeanInfo(type.getName(), "Built on the first access", null, null, null, null,
+                new ImmutableDescriptor("immutableInfo=false"));
+    }
+
+    /**
+     * The MBean server asks for the info while registering the MBean, the placeholder info is returned until then
+     */
+    void registered() {
+        registered = true;
+    }
+
+    boolean initialized() {
+        return delegate != null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!registered && "getMBeanInfo".equals(method.getName())) {
+            return placeholder;
+        }
+
+        return delegate().invoke(proxy, method, args);
+    }
+
+    private JmxWrapperInvocationHandler delegate() {
+        var delegate = this.delegate;
+        if (delegate == null) {
+            synchronized (this) {
+                delegate = this.delegate;
+                if (delegate == null) {
+                    this.delegate = delegate = factory.get();
+                }
+            }
+        }
+        return delegate;
+    }
+}
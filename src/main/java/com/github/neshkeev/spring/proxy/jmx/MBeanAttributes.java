@@ -0,0 +1,119 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.management.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The attributes of an exported bean: its getters pre-bound as {@link MethodHandle}s and the operation statistics.
+ * Reads don't go through the reflective dispatch of {@link MBeanInvocable}.
+ */
+final class MBeanAttributes {
+    private final Map<String, Getter> getters = new HashMap<>();
+    private final Map<String, MethodHandle> setters = new HashMap<>();
+    private final OperationStatistics statistics;
+
+    MBeanAttributes(Object bean, MBeanInfo mBeanInfo) {
+        this.statistics = new OperationStatistics(mBeanInfo.getOperations());
+
+        final var type = bean.getClass();
+        final var lookup = MethodHandles.publicLookup();
+        for (var getter : MBeanUtils.getters(type)) {
+            try {
+                final var name = MBeanUtils.attributeName(getter);
+                getters.put(name, new Getter(
+                        lookup.unreflect(getter).bindTo(bean).asType(MethodType.methodType(Object.class)),
+                        OpenTypeMapping.of(getter.getGenericReturnType())));
+
+                final var setter = MBeanUtils.setter(type, getter);
+                if (setter != null) {
+                    setters.put(name, lookup.unreflect(setter).bindTo(bean).asType(MethodType.methodType(void.class, Object.class)));
+                }
+            }
+            catch (IllegalAccessException e) {
+                // the attribute isn't accessible and stays unknown
+            }
+        }
+    }
+
+    OperationStatistics statistics() {
+        return statistics;
+    }
+
+    Object getAttribute(String attribute) throws AttributeNotFoundException, MBeanException {
+        final var getter = getters.get(attribute);
+        if (getter != null) {
+            return getter.get();
+        }
+
+        final var statistic = statistics.attribute(attribute);
+        if (statistic == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return statistic;
+    }
+
+    AttributeList getAttributes(String[] attributes) {
+        final var result = new AttributeList(attributes.length);
+        for (String attribute : attributes) {
+            try {
+                result.add(new Attribute(attribute, getAttribute(attribute)));
+            }
+            catch (JMException e) {
+                // the JMX contract is to skip the attributes that can't be read
+            }
+        }
+        return result;
+    }
+
+    void setAttribute(Attribute attribute) throws AttributeNotFoundException, MBeanException, InvalidAttributeValueException {
+        final var setter = setters.get(attribute.getName());
+        if (setter == null) {
+            throw new AttributeNotFoundException(attribute.getName() + " is not writable");
+        }
+
+        try {
+            setter.invokeExact(attribute.getValue());
+        }
+        catch (ClassCastException e) {
+            throw new InvalidAttributeValueException(e.getMessage());
+        }
+        catch (Exception e) {
+            throw new MBeanException(e);
+        }
+        catch (Throwable e) {
+            throw new RuntimeErrorException(e instanceof Error error ? error : new Error(e));
+        }
+    }
+
+    AttributeList setAttributes(AttributeList attributes) {
+        final var result = new AttributeList(attributes.size());
+        for (Attribute attribute : attributes.asList()) {
+            try {
+                setAttribute(attribute);
+                result.add(new Attribute(attribute.getName(), getAttribute(attribute.getName())));
+            }
+            catch (JMException e) {
+                // the JMX contract is to skip the attributes that can't be written
+            }
+        }
+        return result;
+    }
+
+    private record Getter(MethodHandle handle, OpenTypeMapping mapping) {
+        private Object get() throws MBeanException {
+            try {
+                return mapping.toOpenValue((Object) handle.invokeExact());
+            }
+            catch (Exception e) {
+                throw new MBeanException(e);
+            }
+            catch (Throwable e) {
+                throw new RuntimeErrorException(e instanceof Error error ? error : new Error(e));
+            }
+        }
+    }
+}
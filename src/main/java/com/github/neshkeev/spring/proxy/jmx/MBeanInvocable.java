@@ -4,7 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 
-import java.lang.invoke.MethodType;
+import javax.management.openmbean.OpenDataException;
 import java.lang.reflect.Method;
 import java.util.*;
 
@@ -13,61 +13,133 @@ public class MBeanInvocable {
 
     private final ObjectMapper objectMapper;
 
+    private final DispatchCache dispatchCache = new DispatchCache();
+
+    private final ClassValue<ArgumentDecoder> decoders = new ClassValue<>() {
+        @Override
+        protected ArgumentDecoder computeValue(Class<?> type) {
+            return ArgumentDecoder.of(type, objectMapper);
+        }
+    };
+
+    private final ClassValue<Optional<GeneratedDispatch>> generatedDispatches = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedDispatch> computeValue(Class<?> type) {
+            return Optional.ofNullable(loadDispatcher(type)).map(dispatcher -> new GeneratedDispatch(type, dispatcher));
+        }
+    };
+
     public MBeanInvocable(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
 
-    public Object getResult(Object target, String methodName, Object[] params) throws ReflectiveOperationException, JsonProcessingException {
-        var invocable = prepareMethod(target, methodName, params);
-        var result = invocable.invoke(target);
-        return augmentResult(result);
+    public Object getResult(Object target, String methodName, Object[] params) throws ReflectiveOperationException, JsonProcessingException, OpenDataException {
+        final var type = target.getClass();
+
+        final var generated = generatedDispatches.get(type);
+        if (generated.isPresent()) {
+            final var result = generated.get().invoke(target, methodName, params);
+            if (result != JmxDispatcher.NO_MATCH) return result;
+        }
+
+        final var resolution = new JmxResolutionEvent();
+        resolution.begin();
+
+        var plan = dispatchCache.find(type, methodName, params);
+        final var cached = plan != null;
+        if (plan == null) {
+            plan = prepareMethod(target, methodName, params);
+            dispatchCache.put(type, methodName, plan);
+        }
+
+        resolution.end();
+        if (resolution.shouldCommit()) {
+            resolution.type = type;
+            resolution.operation = methodName;
+            resolution.method = plan.method().toString();
+            resolution.cached = cached;
+            resolution.commit();
+        }
+
+        var result = plan.invoke(target, params);
+
+        final var serialization = new ResultSerializationEvent();
+        serialization.begin();
+
+        final var converted = plan.convertResult(result);
+
+        serialization.end();
+        if (serialization.shouldCommit()) {
+            commit(serialization, methodName, converted);
+        }
+        return converted;
+    }
+
+    public void invalidate(Class<?> type) {
+        dispatchCache.invalidate(type);
+        generatedDispatches.remove(type);
+    }
+
+    private static void commit(ResultSerializationEvent event, String operation, Object converted) {
+        event.operation = operation;
+        event.resultType = converted == null ? null : converted.getClass();
+        event.size = ResultSerializationEvent.sizeOf(converted);
+        event.commit();
     }
 
-    private record PreparedInvocable(Method method, Object[] args) {
-        private Object invoke(Object target) throws ReflectiveOperationException {
-            return method.invoke(target, args);
+    /**
+     * @return the dispatcher generated by {@link JmxExporterProcessor} or {@code null} if the type was compiled without it
+     */
+    private static JmxDispatcher loadDispatcher(Class<?> type) {
+        try {
+            final var dispatcherType = Class.forName(type.getName() + JmxDispatcher.SUFFIX, true, type.getClassLoader());
+            return (JmxDispatcher) dispatcherType.getConstructor().newInstance();
+        }
+        catch (ClassNotFoundException e) {
+            return null;
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create the dispatcher of " + type, e);
         }
     }
 
-    private PreparedInvocable prepareMethod(Object target, String methodName, Object[] params) throws NoSuchMethodException, JsonProcessingException {
-        final var args = new Object[params.length];
+    private DispatchPlan prepareMethod(Object target, String methodName, Object[] params) throws NoSuchMethodException {
         final var candidates = getCandidateMethods(target, methodName);
 
         for (Method candidate : candidates) {
             if (candidate.getParameterCount() != params.length) continue;
 
+            final var parameterTypes = candidate.getParameterTypes();
+            final var converters = new DispatchPlan.ArgumentConverter[params.length];
+
             int i = 0;
-            for (; i < candidate.getParameterCount(); i++) {
+            for (; i < parameterTypes.length; i++) {
                 final Object jmxParam = params[i];
-                final var methodParam = candidate.getParameters()[i];
 
                 if (jmxParam != null) {
-                    args[i] = tryConvert(jmxParam, methodParam.getType());
-                    if (args[i] == null) break;
+                    final var decoder = decoders.get(parameterTypes[i]);
+                    if (!decoder.accepts(jmxParam.getClass())) break;
+                    converters[i] = decoder.isSameType(jmxParam.getClass()) ? null : decoder::decode;
                 }
-                else {
-                    args[i] = null;
+                else if (parameterTypes[i].isPrimitive()) {
+                    break;
                 }
             }
 
-            if (i == candidate.getParameterCount()) {
-                return new PreparedInvocable(candidate, args);
+            if (i == parameterTypes.length) {
+                return new DispatchPlan(DispatchPlan.signatureOf(params), candidate, converters, getResultConverter(candidate, target.getClass()));
             }
         }
         throw new NoSuchMethodException("No method matches the required signature");
     }
 
-    private Object tryConvert(Object jmxParam, Class<?> paramType) throws JsonProcessingException {
-        final var primitiveJmxType = MethodType.methodType(jmxParam.getClass()).unwrap().returnType();
-
-        if (jmxParam.getClass() != paramType && primitiveJmxType != paramType) {
-            if (!jmxParam.getClass().equals(String.class)) {
-                return Optional.empty();
-            }
-
-            return objectMapper.readValue(jmxParam.toString(), paramType);
+    private DispatchPlan.ResultConverter getResultConverter(Method method, Class<?> type) {
+        final var exporter = type.getAnnotation(JmxExporter.class);
+        if (exporter != null && exporter.mapping() == JmxExporter.Mapping.OPEN_TYPE) {
+            final var mapping = OpenTypeMapping.of(method.getGenericReturnType());
+            if (mapping != null) return mapping::toOpenValue;
         }
-        return jmxParam;
+        return this::augmentResult;
     }
 
     private List<Method> getCandidateMethods(Object target, String actionName) throws NoSuchMethodException {
@@ -84,6 +156,83 @@ public class MBeanInvocable {
         return candidates;
     }
 
+    /**
+     * Decodes the arguments and converts the results for a generated dispatcher the same way the reflective dispatch does
+     */
+    private final class GeneratedDispatch implements JmxDispatcher.Context {
+        private final Class<?> type;
+
+        private final JmxDispatcher dispatcher;
+
+        private final DispatchPlan.ResultConverter[] resultConverters;
+
+        private final String[] names;
+
+        private final String[] methods;
+
+        private GeneratedDispatch(Class<?> type, JmxDispatcher dispatcher) {
+            this.type = type;
+            this.dispatcher = dispatcher;
+
+            final var names = dispatcher.names();
+            final var parameterTypes = dispatcher.parameterTypes();
+            this.names = names;
+            this.methods = new String[names.length];
+            this.resultConverters = new DispatchPlan.ResultConverter[names.length];
+            for (int i = 0; i < names.length; i++) {
+                try {
+                    final var method = type.getMethod(names[i], parameterTypes[i]);
+                    methods[i] = method.toString();
+                    resultConverters[i] = getResultConverter(method, type);
+                }
+                catch (NoSuchMethodException e) {
+                    throw new IllegalStateException("The dispatcher of " + type + " is stale, rebuild the sources", e);
+                }
+            }
+        }
+
+        private Object invoke(Object target, String methodName, Object[] params) throws ReflectiveOperationException, JsonProcessingException, OpenDataException {
+            return dispatcher.invoke(target, methodName, params, this);
+        }
+
+        @Override
+        public boolean accepts(Object param, Class<?> type) {
+            return param == null ? !type.isPrimitive() : decoders.get(type).accepts(param.getClass());
+        }
+
+        @Override
+        public void resolved(int operation) {
+            final var resolution = new JmxResolutionEvent();
+            if (resolution.shouldCommit()) {
+                resolution.type = type;
+                resolution.operation = names[operation];
+                resolution.method = methods[operation];
+                resolution.generated = true;
+                resolution.commit();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T decode(Object param, Class<T> type) throws JsonProcessingException {
+            return (T) decoders.get(type).decode(param);
+        }
+
+        @Override
+        public Object result(int operation, Object result) throws JsonProcessingException, OpenDataException {
+            final var serialization = new ResultSerializationEvent();
+            serialization.begin();
+
+            final var converted = resultConverters[operation].convert(result);
+
+            serialization.end();
+            if (serialization.shouldCommit()) {
+                commit(serialization, names[operation], converted);
+            }
+            return converted;
+        }
+    }
+
     private Object augmentResult(final Object result) throws JsonProcessingException {
         if (result == null) {
             return null;
@@ -1,29 +1,225 @@
 package com.github.neshkeev.spring.proxy.jmx;
 
 import javax.management.*;
+import javax.management.openmbean.SimpleType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 public class MBeanUtils {
+    public static final String INVOKE_BATCH = "invokeBatch";
+    public static final String SUBMIT = "submit";
+    public static final String FETCH = "fetch";
+
+    public static final String INVOCATION_COUNT = ".InvocationCount";
+    public static final String ERROR_COUNT = ".ErrorCount";
+    public static final String TOTAL_TIME_NANOS = ".TotalTimeNanos";
+
+    private static final Descriptor IMMUTABLE_INFO = new ImmutableDescriptor("immutableInfo=true");
+
+    private static final ClassValue<MBeanInfo> INFOS = new ClassValue<>() {
+        @Override
+        protected MBeanInfo computeValue(Class<?> type) {
+            final var operations = withSyntheticOperations(operations(type, mapping(type)), type.getAnnotation(JmxExporter.class));
+            return new MBeanInfo(type.getName(),
+                    type.getName(),
+                    attributes(type, operations),
+                    new MBeanConstructorInfo[0],
+                    operations,
+                    new MBeanNotificationInfo[0],
+                    IMMUTABLE_INFO);
+        }
+    };
+
+    public static MBeanInfo mBeanInfo(final Class<?> type) {
+        return INFOS.get(type);
+    }
+
+    /**
+     * @return the info of the type that lists the notifications the MBean emits
+     */
+    public static MBeanInfo mBeanInfo(final Class<?> type, final MBeanNotificationInfo[] notifications) {
+        final var info = INFOS.get(type);
+        if (notifications.length == 0) return info;
+
+        return new MBeanInfo(info.getClassName(),
+                info.getDescription(),
+                info.getAttributes(),
+                info.getConstructors(),
+                info.getOperations(),
+                notifications,
+                info.getDescriptor());
+    }
 
     public static MBeanOperationInfo[] operations(final Class<?> type) {
+        return operations(type, JmxExporter.Mapping.JSON);
+    }
+
+    public static MBeanOperationInfo[] operations(final Class<?> type, final JmxExporter.Mapping mapping) {
         return Arrays.stream(type.getDeclaredMethods())
                 .filter(m -> Modifier.isPublic(m.getModifiers()))
-                .map(MBeanUtils::getmBeanOperationInfo)
+                .filter(m -> !isAttributeAccessor(type, m))
+                .filter(m -> !isNotificationSource(type, m))
+                .map(m -> getmBeanOperationInfo(m, mapping))
                 .toArray(MBeanOperationInfo[]::new);
     }
 
-    private static MBeanOperationInfo getmBeanOperationInfo(final Method m) {
+    public static MBeanAttributeInfo[] attributes(final Class<?> type, final MBeanOperationInfo[] operations) {
+        final var attributes = new ArrayList<MBeanAttributeInfo>();
+
+        for (Method getter : getters(type)) {
+            final var mapping = OpenTypeMapping.of(getter.getGenericReturnType());
+            attributes.add(new MBeanAttributeInfo(attributeName(getter),
+                    mapping.openType().getClassName(),
+                    attributeName(getter),
+                    true,
+                    setter(type, getter) != null,
+                    getter.getName().startsWith("is"),
+                    new ImmutableDescriptor(new String[]{"openType"}, new Object[]{mapping.openType()})));
+        }
+
+        Arrays.stream(operations)
+                .map(MBeanFeatureInfo::getName)
+                .distinct()
+                .forEach(operation -> {
+                    attributes.add(statisticsAttribute(operation + INVOCATION_COUNT, "The number of invocations of " + operation));
+                    attributes.add(statisticsAttribute(operation + ERROR_COUNT, "The number of failed invocations of " + operation));
+                    attributes.add(statisticsAttribute(operation + TOTAL_TIME_NANOS, "The total time spent in " + operation));
+                });
+
+        return attributes.toArray(MBeanAttributeInfo[]::new);
+    }
+
+    /**
+     * @return the public getters of the type whose values can be represented as open types
+     */
+    public static List<Method> getters(final Class<?> type) {
+        return Arrays.stream(type.getDeclaredMethods())
+                .filter(MBeanUtils::isGetter)
+                .filter(m -> OpenTypeMapping.of(m.getGenericReturnType()) != null)
+                .toList();
+    }
+
+    /**
+     * @return the setter of a simple-typed attribute, {@code null} if the attribute is read-only
+     */
+    public static Method setter(final Class<?> type, final Method getter) {
+        final var mapping = OpenTypeMapping.of(getter.getGenericReturnType());
+        if (mapping == null || !(mapping.openType() instanceof SimpleType<?>)) return null;
+
+        try {
+            final var setter = type.getDeclaredMethod("set" + attributeName(getter), getter.getReturnType());
+            return Modifier.isPublic(setter.getModifiers()) && setter.getReturnType() == void.class ? setter : null;
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static String attributeName(final Method getter) {
+        return getter.getName().substring(getter.getName().startsWith("is") ? 2 : 3);
+    }
+
+    private static boolean isGetter(final Method m) {
+        if (!Modifier.isPublic(m.getModifiers()) || Modifier.isStatic(m.getModifiers())) return false;
+        if (m.getParameterCount() != 0 || m.getReturnType() == void.class) return false;
+
+        final var name = m.getName();
+        return name.length() > 3 && name.startsWith("get")
+                || name.length() > 2 && name.startsWith("is") && m.getReturnType() == boolean.class;
+    }
+
+    private static boolean isAttributeAccessor(final Class<?> type, final Method m) {
+        if (isGetter(m)) {
+            return OpenTypeMapping.of(m.getGenericReturnType()) != null;
+        }
+
+        if (m.getParameterCount() != 1 || !m.getName().startsWith("set") || m.getName().length() <= 3) return false;
+
+        final var attribute = m.getName().substring(3);
+        return getters(type).stream()
+                .anyMatch(getter -> attributeName(getter).equals(attribute) && m.equals(setter(type, getter)));
+    }
+
+    private static boolean isNotificationSource(final Class<?> type, final Method m) {
+        return NotificationSource.class.isAssignableFrom(type)
+                && m.getName().equals("changeNotifications")
+                && m.getParameterCount() == 0;
+    }
+
+    private static MBeanAttributeInfo statisticsAttribute(final String name, final String description) {
+        return new MBeanAttributeInfo(name, long.class.getName(), description, true, false, false);
+    }
+
+    private static JmxExporter.Mapping mapping(final Class<?> type) {
+        final var exporter = type.getAnnotation(JmxExporter.class);
+        return exporter == null ? JmxExporter.Mapping.JSON : exporter.mapping();
+    }
+
+    private static MBeanOperationInfo[] withSyntheticOperations(final MBeanOperationInfo[] operations, final JmxExporter exporter) {
+        final var synthetic = new ArrayList<MBeanOperationInfo>();
+        final var invokeBatch = new MBeanOperationInfo(INVOKE_BATCH,
+                "Invokes many operations in one call, every element of params is the Object[] of the respective action",
+                new MBeanParameterInfo[]{
+                        new MBeanParameterInfo("actions", String[].class.getName(), "the operation names"),
+                        new MBeanParameterInfo("params", Object[].class.getName(), "the parameters of every operation"),
+                        new MBeanParameterInfo("parallel", boolean.class.getName(), "run in parallel if the bean is thread-safe")
+                },
+                List.class.getName(),
+                MBeanOperationInfo.UNKNOWN);
+        synthetic.add(invokeBatch);
+
+        if (exporter != null && exporter.execution() == JmxExporter.Execution.ASYNC) {
+            synthetic.add(new MBeanOperationInfo(SUBMIT,
+                    "Starts an operation in the background and returns the ticket to fetch its result with",
+                    new MBeanParameterInfo[]{
+                            new MBeanParameterInfo("action", String.class.getName(), "the operation name"),
+                            new MBeanParameterInfo("params", Object[].class.getName(), "the parameters of the operation")
+                    },
+                    String.class.getName(),
+                    MBeanOperationInfo.UNKNOWN));
+            synthetic.add(new MBeanOperationInfo(FETCH,
+                    "Returns the status of a submitted operation along with its result or error once it's completed",
+                    new MBeanParameterInfo[]{
+                            new MBeanParameterInfo("ticket", String.class.getName(), "the ticket returned by submit")
+                    },
+                    Map.class.getName(),
+                    MBeanOperationInfo.ACTION_INFO));
+        }
+
+        final var result = Arrays.copyOf(operations, operations.length + synthetic.size());
+        for (int i = 0; i < synthetic.size(); i++) {
+            result[operations.length + i] = synthetic.get(i);
+        }
+        return result;
+    }
+
+    private static MBeanOperationInfo getmBeanOperationInfo(final Method m, final JmxExporter.Mapping mapping) {
         final var params = Arrays.stream(m.getParameters())
                 .map(p -> new MBeanParameterInfo(p.getName(), getPrimitiveTypeOrString(p.getType()), p.getName()))
                 .toArray(MBeanParameterInfo[]::new);
 
+        final var openTypeMapping = mapping == JmxExporter.Mapping.OPEN_TYPE
+                ? OpenTypeMapping.of(m.getGenericReturnType())
+                : null;
+
+        if (openTypeMapping == null) {
+            return new MBeanOperationInfo(m.getName(),
+                    m.getName(),
+                    params,
+                    getPrimitiveTypeOrString(m.getReturnType()),
+                    MBeanOperationInfo.UNKNOWN);
+        }
+
         return new MBeanOperationInfo(m.getName(),
                 m.getName(),
                 params,
-                getPrimitiveTypeOrString(m.getReturnType()),
-                MBeanOperationInfo.UNKNOWN);
+                openTypeMapping.openType().getClassName(),
+                MBeanOperationInfo.UNKNOWN,
+                new ImmutableDescriptor(new String[]{"openType"}, new Object[]{openTypeMapping.openType()}));
     }
 
     private static String getPrimitiveTypeOrString(final Class<?> type) {
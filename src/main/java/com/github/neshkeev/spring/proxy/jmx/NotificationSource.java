@@ -0,0 +1,8 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+/**
+ * A {@link JmxExporter} bean that emits {@link ChangeNotifications}, its MBean becomes a notification emitter
+ */
+public interface NotificationSource {
+    ChangeNotifications changeNotifications();
+}
@@ -0,0 +1,278 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Maps java types onto JMX open types: records become {@link CompositeData}, collections and arrays become arrays,
+ * maps become {@link TabularData}. A mapping is derived once per type, {@code null} means the type isn't mappable.
+ */
+abstract class OpenTypeMapping {
+    private static final OpenTypeMapping UNMAPPABLE = new Identity(SimpleType.VOID);
+
+    private static final Map<Class<?>, SimpleType<?>> SIMPLE_TYPES = Map.ofEntries(
+            Map.entry(void.class, SimpleType.VOID),
+            Map.entry(Void.class, SimpleType.VOID),
+            Map.entry(boolean.class, SimpleType.BOOLEAN),
+            Map.entry(Boolean.class, SimpleType.BOOLEAN),
+            Map.entry(char.class, SimpleType.CHARACTER),
+            Map.entry(Character.class, SimpleType.CHARACTER),
+            Map.entry(byte.class, SimpleType.BYTE),
+            Map.entry(Byte.class, SimpleType.BYTE),
+            Map.entry(short.class, SimpleType.SHORT),
+            Map.entry(Short.class, SimpleType.SHORT),
+            Map.entry(int.class, SimpleType.INTEGER),
+            Map.entry(Integer.class, SimpleType.INTEGER),
+            Map.entry(long.class, SimpleType.LONG),
+            Map.entry(Long.class, SimpleType.LONG),
+            Map.entry(float.class, SimpleType.FLOAT),
+            Map.entry(Float.class, SimpleType.FLOAT),
+            Map.entry(double.class, SimpleType.DOUBLE),
+            Map.entry(Double.class, SimpleType.DOUBLE),
+            Map.entry(String.class, SimpleType.STRING),
+            Map.entry(BigDecimal.class, SimpleType.BIGDECIMAL),
+            Map.entry(BigInteger.class, SimpleType.BIGINTEGER),
+            Map.entry(Date.class, SimpleType.DATE),
+            Map.entry(ObjectName.class, SimpleType.OBJECTNAME)
+    );
+
+    private static final ConcurrentMap<Type, OpenTypeMapping> MAPPINGS = new ConcurrentHashMap<>();
+
+    private final OpenType<?> openType;
+
+    private OpenTypeMapping(OpenType<?> openType) {
+        this.openType = openType;
+    }
+
+    OpenType<?> openType() {
+        return openType;
+    }
+
+    abstract Object toOpenValue(Object value) throws OpenDataException;
+
+    static OpenTypeMapping of(Type type) {
+        final var cached = MAPPINGS.get(type);
+        if (cached != null) {
+            return cached == UNMAPPABLE ? null : cached;
+        }
+
+        OpenTypeMapping mapping;
+        try {
+            mapping = derive(type);
+        }
+        catch (OpenDataException e) {
+            mapping = null;
+        }
+
+        MAPPINGS.putIfAbsent(type, mapping == null ? UNMAPPABLE : mapping);
+        return mapping;
+    }
+
+    private static OpenTypeMapping derive(Type type) throws OpenDataException {
+        if (type instanceof Class<?> aClass) {
+            final var simpleType = SIMPLE_TYPES.get(aClass);
+            if (simpleType != null) return new Identity(simpleType);
+
+            if (aClass.isEnum()) return new EnumName();
+            if (aClass.isRecord()) return Composite.ofRecord(aClass);
+            if (aClass.isArray()) return Sequence.ofElements(aClass.getComponentType());
+            return null;
+        }
+
+        if (type instanceof GenericArrayType arrayType) {
+            return Sequence.ofElements(arrayType.getGenericComponentType());
+        }
+
+        if (type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() instanceof Class<?> rawType) {
+            final var arguments = parameterizedType.getActualTypeArguments();
+
+            if (Collection.class.isAssignableFrom(rawType)) return Sequence.ofElements(arguments[0]);
+            if (Map.class.isAssignableFrom(rawType)) return Table.ofEntries(arguments[0], arguments[1]);
+        }
+        return null;
+    }
+
+    private static final class Identity extends OpenTypeMapping {
+        private Identity(OpenType<?> openType) {
+            super(openType);
+        }
+
+        @Override
+        Object toOpenValue(Object value) {
+            return value;
+        }
+    }
+
+    private static final class EnumName extends OpenTypeMapping {
+        private EnumName() {
+            super(SimpleType.STRING);
+        }
+
+        @Override
+        Object toOpenValue(Object value) {
+            return value == null ? null : ((Enum<?>) value).name();
+        }
+    }
+
+    private static final class Composite extends OpenTypeMapping {
+        private final String[] names;
+        private final MethodHandle[] accessors;
+        private final OpenTypeMapping[] mappings;
+
+        private Composite(CompositeType openType, String[] names, MethodHandle[] accessors, OpenTypeMapping[] mappings) {
+            super(openType);
+            this.names = names;
+            this.accessors = accessors;
+            this.mappings = mappings;
+        }
+
+        private static Composite ofRecord(Class<?> recordType) throws OpenDataException {
+            final var components = recordType.getRecordComponents();
+            final var names = new String[components.length];
+            final var accessors = new MethodHandle[components.length];
+            final var mappings = new OpenTypeMapping[components.length];
+            final var openTypes = new OpenType<?>[components.length];
+
+            for (int i = 0; i < components.length; i++) {
+                names[i] = components[i].getName();
+                mappings[i] = OpenTypeMapping.of(components[i].getGenericType());
+                if (mappings[i] == null) return null;
+
+                openTypes[i] = mappings[i].openType();
+                accessors[i] = accessor(components[i]);
+                if (accessors[i] == null) return null;
+            }
+
+            final var compositeType = new CompositeType(recordType.getName(), recordType.getName(), names, names, openTypes);
+            return new Composite(compositeType, names, accessors, mappings);
+        }
+
+        private static MethodHandle accessor(RecordComponent component) {
+            try {
+                return MethodHandles.publicLookup()
+                        .unreflect(component.getAccessor())
+                        .asType(MethodType.methodType(Object.class, Object.class));
+            }
+            catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        @Override
+        Object toOpenValue(Object value) throws OpenDataException {
+            if (value == null) return null;
+
+            final var values = new Object[accessors.length];
+            for (int i = 0; i < accessors.length; i++) {
+                try {
+                    values[i] = mappings[i].toOpenValue((Object) accessors[i].invokeExact(value));
+                }
+                catch (OpenDataException | RuntimeException | Error e) {
+                    throw e;
+                }
+                catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return new CompositeDataSupport((CompositeType) openType(), names, values);
+        }
+    }
+
+    private static final class Sequence extends OpenTypeMapping {
+        private final OpenTypeMapping element;
+        private final Class<?> elementClass;
+
+        private Sequence(ArrayType<?> openType, OpenTypeMapping element, Class<?> elementClass) {
+            super(openType);
+            this.element = element;
+            this.elementClass = elementClass;
+        }
+
+        private static Sequence ofElements(Type elementType) throws OpenDataException {
+            final var element = OpenTypeMapping.of(elementType);
+            if (element == null || element.openType() instanceof ArrayType<?>) return null;
+
+            try {
+                final var elementClass = Class.forName(element.openType().getClassName());
+                return new Sequence(ArrayType.getArrayType(element.openType()), element, elementClass);
+            }
+            catch (ClassNotFoundException e) {
+                return null;
+            }
+        }
+
+        @Override
+        Object toOpenValue(Object value) throws OpenDataException {
+            if (value == null) return null;
+
+            if (value instanceof Collection<?> collection) {
+                final var result = Array.newInstance(elementClass, collection.size());
+                int i = 0;
+                for (Object item : collection) {
+                    Array.set(result, i++, element.toOpenValue(item));
+                }
+                return result;
+            }
+
+            final var length = Array.getLength(value);
+            final var result = Array.newInstance(elementClass, length);
+            for (int i = 0; i < length; i++) {
+                Array.set(result, i, element.toOpenValue(Array.get(value, i)));
+            }
+            return result;
+        }
+    }
+
+    private static final class Table extends OpenTypeMapping {
+        private static final String[] ITEMS = {"key", "value"};
+
+        private final OpenTypeMapping key;
+        private final OpenTypeMapping value;
+
+        private Table(TabularType openType, OpenTypeMapping key, OpenTypeMapping value) {
+            super(openType);
+            this.key = key;
+            this.value = value;
+        }
+
+        private static Table ofEntries(Type keyType, Type valueType) throws OpenDataException {
+            final var key = OpenTypeMapping.of(keyType);
+            final var value = OpenTypeMapping.of(valueType);
+            if (key == null || value == null || !(key.openType() instanceof SimpleType<?>)) return null;
+
+            final var typeName = "java.util.Map<" + key.openType().getTypeName() + "," + value.openType().getTypeName() + ">";
+            final var rowType = new CompositeType(typeName, typeName, ITEMS, ITEMS,
+                    new OpenType<?>[]{key.openType(), value.openType()});
+            return new Table(new TabularType(typeName, typeName, rowType, new String[]{"key"}), key, value);
+        }
+
+        @Override
+        Object toOpenValue(Object map) throws OpenDataException {
+            if (map == null) return null;
+
+            final var tabularType = (TabularType) openType();
+            final var result = new TabularDataSupport(tabularType);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) map).entrySet()) {
+                result.put(new CompositeDataSupport(tabularType.getRowType(), ITEMS,
+                        new Object[]{key.toOpenValue(entry.getKey()), value.toOpenValue(entry.getValue())}));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the operations of an MBean off the RMI connection thread. Operations run on virtual threads
+ * when the JDK has them (21+), otherwise on a shared pool of daemon threads.
+ * The number of the operations running at once is limited per bean and every call is bounded by a timeout.
+ * The results of the submitted operations nobody fetched are dropped after a while, so a client that went away
+ * doesn't hold the slots of the submissions forever.
+ */
+final class OperationExecutor {
+    static final int MAX_PENDING_SUBMISSIONS = 1024;
+
+    static final long RESULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final ExecutorService EXECUTOR = newExecutor();
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final long resultTtlNanos;
+    private final ConcurrentMap<String, Operation> submissions = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingSubmissions = new AtomicInteger();
+    private volatile long lastEviction = System.nanoTime();
+
+    /**
+     * @param maxConcurrency the maximum number of the running operations, non-positive means unlimited
+     * @param timeoutMillis how long a call waits for a permit and for the result, non-positive means forever
+     */
+    OperationExecutor(int maxConcurrency, long timeoutMillis) {
+        this(maxConcurrency, timeoutMillis, RESULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param resultTtlMillis how long the result of a completed submission waits to be fetched
+     */
+    OperationExecutor(int maxConcurrency, long timeoutMillis, long resultTtlMillis) {
+        this.permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        this.timeoutMillis = timeoutMillis;
+        this.resultTtlNanos = TimeUnit.MILLISECONDS.toNanos(resultTtlMillis);
+    }
+
+    Object execute(Callable<Object> operation) throws Exception {
+        final var future = start(operation);
+        try {
+            return timeoutMillis > 0 ? future.get(timeoutMillis, TimeUnit.MILLISECONDS) : future.get();
+        }
+        catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TimeoutException("The operation didn't complete within " + timeoutMillis + "ms");
+        }
+        catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    String submit(Callable<Object> operation) throws Exception {
+        reserveSubmission();
+
+        final Operation started;
+        try {
+            started = start(operation);
+        }
+        catch (Exception e) {
+            pendingSubmissions.decrementAndGet();
+            throw e;
+        }
+
+        final var ticket = UUID.randomUUID().toString();
+        submissions.put(ticket, started);
+        return ticket;
+    }
+
+    private void reserveSubmission() {
+        // the slot is taken first, so concurrent submissions can't overshoot the limit
+        final var reserved = pendingSubmissions.incrementAndGet();
+        if (reserved <= MAX_PENDING_SUBMISSIONS && System.nanoTime() - lastEviction < resultTtlNanos) return;
+
+        evictExpired();
+        if (pendingSubmissions.get() > MAX_PENDING_SUBMISSIONS) {
+            pendingSubmissions.decrementAndGet();
+            throw new RejectedExecutionException("Too many submitted operations, fetch the results of the previous ones");
+        }
+    }
+
+    private void evictExpired() {
+        final var now = System.nanoTime();
+        lastEviction = now;
+        submissions.forEach((ticket, operation) -> {
+            if (operation.completed && now - operation.completedAt >= resultTtlNanos) {
+                forget(ticket, operation);
+            }
+        });
+    }
+
+    private void forget(String ticket, Operation operation) {
+        if (submissions.remove(ticket, operation)) {
+            pendingSubmissions.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the status of the submitted operation with either its result or its error, the completed ones are forgotten
+     */
+    Map<String, Object> fetch(String ticket) {
+        final var result = new HashMap<String, Object>(4);
+        result.put("ticket", ticket);
+
+        final var future = submissions.get(ticket);
+        if (future == null) {
+            result.put("status", "UNKNOWN");
+            return result;
+        }
+
+        if (!future.isDone()) {
+            result.put("status", "PENDING");
+            return result;
+        }
+
+        forget(ticket, future);
+        try {
+            result.put("result", future.get());
+            result.put("status", "DONE");
+        }
+        catch (ExecutionException | CancellationException | InterruptedException e) {
+            final var cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            result.put("error", cause.toString());
+            result.put("status", "FAILED");
+        }
+        return result;
+    }
+
+    private Operation start(Callable<Object> callable) throws InterruptedException, TimeoutException {
+        acquire();
+        final var operation = new Operation(callable);
+        try {
+            EXECUTOR.execute(operation);
+            return operation;
+        }
+        catch (RejectedExecutionException e) {
+            operation.cancel(false);
+            release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws InterruptedException, TimeoutException {
+        if (permits == null) return;
+
+        final var acquired = timeoutMillis > 0
+                ? permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)
+                : permits.tryAcquire(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        if (!acquired) {
+            throw new TimeoutException("Too many operations are running, no slot became free within " + timeoutMillis + "ms");
+        }
+    }
+
+    private void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Frees its permit once its body exits, after the result is set, so a waiting caller sees the operation as done
+     * by the time the slot is free. A timed out operation that ignores the interrupt keeps its slot until it returns,
+     * so the stuck calls count against the limit and don't pile up threads.
+     */
+    private final class Operation extends FutureTask<Object> {
+        private long completedAt;
+
+        // written after completedAt, so a reader that sees it sees the time as well
+        private volatile boolean completed;
+
+        private Operation(Callable<Object> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            }
+            finally {
+                release();
+            }
+        }
+
+        @Override
+        protected void done() {
+            completedAt = System.nanoTime();
+            completed = true;
+        }
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            final var factory = MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invokeExact();
+        }
+        catch (Throwable e) {
+            // virtual threads aren't available in this JDK
+            return Executors.newCachedThreadPool(r -> {
+                final var thread = new Thread(r, "jmx-operation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import javax.management.MBeanOperationInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counters of every operation of an MBean. The set of operations is fixed upfront,
+ * so a lookup never allocates and the striped {@link LongAdder}s keep the counters contention-free.
+ */
+final class OperationStatistics {
+    private final Map<String, Counters> counters;
+
+    OperationStatistics(MBeanOperationInfo[] operations) {
+        this.counters = new HashMap<>();
+        for (MBeanOperationInfo operation : operations) {
+            counters.putIfAbsent(operation.getName(), new Counters());
+        }
+    }
+
+    Counters get(String operation) {
+        return counters.get(operation);
+    }
+
+    /**
+     * @return the value of a statistics attribute, {@code null} if there is no such attribute
+     */
+    Long attribute(String attribute) {
+        final var dot = attribute.lastIndexOf('.');
+        if (dot < 0) return null;
+
+        final var operation = counters.get(attribute.substring(0, dot));
+        if (operation == null) return null;
+
+        return switch (attribute.substring(dot)) {
+            case MBeanUtils.INVOCATION_COUNT -> operation.invocations.sum();
+            case MBeanUtils.ERROR_COUNT -> operation.errors.sum();
+            case MBeanUtils.TOTAL_TIME_NANOS -> operation.totalTimeNanos.sum();
+            default -> null;
+        };
+    }
+
+    static final class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalTimeNanos = new LongAdder();
+
+        void record(long startNanos, boolean failed) {
+            invocations.increment();
+            totalTimeNanos.add(System.nanoTime() - startNanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+    }
+}
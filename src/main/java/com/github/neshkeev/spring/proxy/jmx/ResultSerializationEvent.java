@@ -0,0 +1,35 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+
+@Name("com.github.neshkeev.spring.proxy.ResultSerialization")
+@Label("JMX Result Serialization")
+@Category({"Spring Proxy", "JMX"})
+@Description("Converting the result of a JMX operation into JSON or open data")
+@StackTrace(false)
+final class ResultSerializationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Result Type")
+    Class<?> resultType;
+
+    @Label("Payload Size")
+    @Description("The length of the JSON text or the number of the elements of an array or a list")
+    long size;
+
+    static long sizeOf(Object result) {
+        if (result instanceof String string) return string.length();
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result != null && result.getClass().isArray()) return Array.getLength(result);
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+import com.github.neshkeev.spring.proxy.jmx.ChangeNotifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+
+@Configuration
+public class CustomerChangesConfiguration {
+    public static final String CUSTOMERS_CHANGED = "customers.changed";
+
+    // closed on the close event rather than on destruction: Tomcat reports the threads left when the web server stops, before that
+    @Bean(destroyMethod = "")
+    public ChangeNotifications customerChanges(
+            @Value("${customers.notifications.window:100ms}") Duration window,
+            @Value("${customers.notifications.max-pending:10000}") int maxPending) {
+        return customersChanged(window, maxPending);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void close(ContextClosedEvent event) {
+        event.getApplicationContext().getBean("customerChanges", ChangeNotifications.class).close();
+    }
+
+    public static ChangeNotifications customersChanged(Duration window, int maxPending) {
+        return new ChangeNotifications(CUSTOMERS_CHANGED, "The ids of the customers added or updated within the window", window, maxPending);
+    }
+}
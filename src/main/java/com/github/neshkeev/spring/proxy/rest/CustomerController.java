@@ -1,33 +1,81 @@
 package com.github.neshkeev.spring.proxy.rest;
 
+import com.github.neshkeev.spring.proxy.jmx.ChangeNotifications;
 import com.github.neshkeev.spring.proxy.jmx.JmxExporter;
+import com.github.neshkeev.spring.proxy.jmx.NotificationSource;
+import com.github.neshkeev.spring.proxy.rest.store.CustomerStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 
-@JmxExporter
+@JmxExporter(threadSafe = true)
 @RestController
-public class CustomerController {
-    private final Map<Integer, Customer> customers;
+public class CustomerController implements NotificationSource {
+    public static final int MAX_PAGE_SIZE = 1000;
 
-    public CustomerController() {
-        this.customers = new HashMap<>();
+    private final CustomerStore customers;
+
+    private final ChangeNotifications changes;
+
+    /**
+     * @param changes the {@link CustomerChangesConfiguration#CUSTOMERS_CHANGED} emitter shared with the imports
+     */
+    public CustomerController(CustomerStore customers, ChangeNotifications changes) {
+        this.customers = customers;
+        this.changes = changes;
+    }
+
+    @Override
+    public ChangeNotifications changeNotifications() {
+        return changes;
     }
 
-    @GetMapping("/customers/{id}")
-    public Customer get(@PathVariable("id") int id) {
+    /**
+     * The REST reads are served by {@link CustomerReadController} with ETags
+     */
+    public Customer get(int id) {
         return customers.get(id);
     }
 
     @PostMapping("/customers")
     public void add(@RequestBody Customer customer) {
-        customers.put(customer.id(), customer);
+        customers.put(customer);
+        changes.changed(customer.id());
     }
 
-    @GetMapping("/customers")
     public Collection<Customer> list() {
-        return customers.values();
+        return customers.list();
+    }
+
+    public int getCount() {
+        return customers.size();
+    }
+
+    @GetMapping(value = "/customers", params = "limit")
+    public CustomerPage list(@RequestParam(name = "after", defaultValue = "" + Integer.MIN_VALUE) int after,
+                             @RequestParam("limit") int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The limit must be within [1, " + MAX_PAGE_SIZE + "]");
+        }
+
+        final var page = customers.page(after, limit);
+        final var next = page.size() < limit ? null : page.get(page.size() - 1).id();
+        return new CustomerPage(page, next);
+    }
+
+    @GetMapping(value = "/customers", params = "active")
+    public Collection<Customer> findByActive(@RequestParam("active") boolean active) {
+        return customers.findByActive(active);
+    }
+
+    @GetMapping(value = "/customers", params = "namePrefix")
+    public Collection<Customer> findByNamePrefix(@RequestParam("namePrefix") String prefix) {
+        if (!StringUtils.hasLength(prefix)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The name prefix must not be empty");
+        }
+        return customers.findByNamePrefix(prefix);
     }
 }
@@ -0,0 +1,9 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+/**
+ * @param accepted the number of the stored customers
+ * @param rejected the number of the records that aren't valid customers
+ * @param error why the import stopped before the end of the body, {@code null} if the whole body was read
+ */
+public record CustomerImport(long accepted, long rejected, String error) {
+}
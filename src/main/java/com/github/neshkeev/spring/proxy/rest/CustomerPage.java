@@ -0,0 +1,9 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+import java.util.List;
+
+/**
+ * @param next the cursor of the following page to pass as {@code after}, {@code null} if it's the last page
+ */
+public record CustomerPage(List<Customer> customers, Integer next) {
+}
@@ -0,0 +1,68 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.neshkeev.spring.proxy.rest.store.CustomerStore;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Serves the polled reads of {@link CustomerController} with strong ETags built from the versions of the store:
+ * a matching {@code If-None-Match} gets {@code 304} before anything is read or serialized,
+ * and the serialized list is reused until the next write.
+ */
+@RestController
+public class CustomerReadController {
+    private final CustomerStore customers;
+
+    private final ObjectWriter listWriter;
+
+    // the versions start over on restart, so the tags of another run must not match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile SerializedList serializedList;
+
+    public CustomerReadController(CustomerStore customers, ObjectMapper objectMapper) {
+        this.customers = customers;
+        this.listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Customer.class));
+    }
+
+    @GetMapping("/customers/{id}")
+    public Customer get(@PathVariable("id") int id, WebRequest request) {
+        final var version = customers.version(id);
+        if (version >= 0 && request.checkNotModified(eTag(id + "-" + version))) return null;
+
+        return customers.get(id);
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<byte[]> list(WebRequest request) throws JsonProcessingException {
+        final var version = customers.version();
+        if (version >= 0 && request.checkNotModified(eTag(Long.toString(version)))) return null;
+
+        var serialized = serializedList;
+        if (serialized == null || serialized.version() != version || version < 0) {
+            // a write during the serialization bumps the version, so the next read serializes again
+            serialized = new SerializedList(version, listWriter.writeValueAsBytes(customers.list()));
+            serializedList = serialized;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(serialized.body());
+    }
+
+    private String eTag(String version) {
+        return '"' + epoch + '-' + version + '"';
+    }
+
+    private record SerializedList(long version, byte[] body) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.neshkeev.spring.proxy.jmx.ChangeNotifications;
+import com.github.neshkeev.spring.proxy.rest.store.CustomerStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+public class CustomerStreamController {
+    private static final int FLUSH_EVERY = 256;
+
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
+    private final CustomerStore customers;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter customerWriter;
+
+    private final ObjectReader customerReader;
+
+    private final ChangeNotifications changes;
+
+    public CustomerStreamController(CustomerStore customers, ObjectMapper objectMapper, ChangeNotifications changes) {
+        this.customers = customers;
+        this.changes = changes;
+        this.objectMapper = objectMapper;
+        this.customerWriter = objectMapper.writerFor(Customer.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.customerReader = objectMapper.readerFor(Customer.class);
+    }
+
+    /**
+     * Reads a JSON array or NDJSON of customers record by record and stores them in batches,
+     * so the memory doesn't grow with the body. The records that aren't customers are counted and skipped,
+     * malformed JSON stops the import, the batches stored before it are kept.
+     * The ids of the stored batches are announced as {@link CustomerChangesConfiguration#CUSTOMERS_CHANGED} notifications,
+     * an import bigger than the emitter keeps per window is announced as one notification without the ids.
+     */
+    @PostMapping(value = "/customers/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CustomerImport> importCustomers(InputStream body) throws IOException {
+        final var batch = new ArrayList<Customer>(IMPORT_BATCH_SIZE);
+        long accepted = 0;
+        long rejected = 0;
+
+        try (var parser = objectMapper.getFactory().createParser(body)) {
+            var token = parser.nextToken();
+            // the elements of a top level array are read the same way as a sequence of root level values
+            final var array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            for (; token != null && !(array && token == JsonToken.END_ARRAY); token = parser.nextToken()) {
+                final var customer = readCustomer(parser);
+                if (customer == null) {
+                    rejected++;
+                    continue;
+                }
+
+                batch.add(customer);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    accepted += store(batch);
+                }
+            }
+        }
+        catch (StreamReadException e) {
+            accepted += store(batch);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomerImport(accepted, rejected, e.getOriginalMessage()));
+        }
+
+        accepted += store(batch);
+        return ResponseEntity.ok(new CustomerImport(accepted, rejected, null));
+    }
+
+    /**
+     * @return the customer at the current token or {@code null} if the value isn't a customer
+     */
+    private Customer readCustomer(JsonParser parser) throws IOException {
+        // a record is read as a tree first, so a value of a wrong shape is skipped as a whole
+        final JsonNode node = parser.readValueAsTree();
+        if (node == null || !node.isObject()) return null;
+
+        final var id = node.get("id");
+        if (id == null || !id.isIntegralNumber() || !id.canConvertToInt()) return null;
+
+        try {
+            return customerReader.readValue(node);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private int store(List<Customer> batch) {
+        if (batch.isEmpty()) return 0;
+
+        final var size = batch.size();
+        customers.putAll(batch);
+        for (Customer customer : batch) {
+            changes.changed(customer.id());
+        }
+        batch.clear();
+        return size;
+    }
+
+    @GetMapping(value = "/customers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(this::writeCustomers);
+    }
+
+    private void writeCustomers(OutputStream out) throws IOException {
+        try (var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+
+            final var written = new int[1];
+            customers.forEach(customer -> {
+                try {
+                    customerWriter.writeValue(generator, customer);
+                    generator.writeRaw('\n');
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Customers are kept in columns indexed by a row number: ids in an {@code int[]}, the active flags in a bitset
+ * and the names as UTF-8 bytes in a shared arena that can live off-heap. An open-addressing {@code int[]} index
+ * maps an id to its row, so the store holds no object per customer, a {@link Customer} is only created when it is read.
+ * <p>
+ * Reads are optimistic and retry under the read lock only if a write happened meanwhile.
+ * Rows are never removed, a replaced name is overwritten in place when it fits, the arena is compacted when it grows.
+ * The ids are also kept in an {@link IdIndex}, so a page is read in the order of ids without a scan.
+ */
+public class CompactCustomerStore implements CustomerStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BATCH_SIZE = 256;
+
+    private final StampedLock lock = new StampedLock();
+
+    private final boolean offHeap;
+
+    private final IdIndex idIndex = new IdIndex();
+
+    // written under the write lock, optimistic readers validate what they read
+    private int[] index = new int[INITIAL_CAPACITY * 2];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] active = new long[(INITIAL_CAPACITY + Long.SIZE - 1) / Long.SIZE];
+    private int[] nameOffsets = new int[INITIAL_CAPACITY];
+    private int[] nameLengths = new int[INITIAL_CAPACITY];
+    private ByteBuffer names;
+    private int namesSize;
+    private int garbage;
+
+    private volatile int rows;
+
+    public CompactCustomerStore() {
+        this(false);
+    }
+
+    /**
+     * @param offHeap whether the names are kept in a direct buffer outside of the java heap
+     */
+    public CompactCustomerStore(boolean offHeap) {
+        this.offHeap = offHeap;
+        this.names = allocate(INITIAL_CAPACITY * 16);
+    }
+
+    @Override
+    public Customer get(int id) {
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final var customer = find(id);
+                if (lock.validate(stamp)) return customer;
+            }
+            catch (RuntimeException e) {
+                // a concurrent write tore the read, unless the stamp is still valid
+                if (lock.validate(stamp)) throw e;
+            }
+        }
+
+        final long readStamp = lock.readLock();
+        try {
+            return find(id);
+        }
+        finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    @Override
+    public void put(Customer customer) {
+        final var name = customer.name() == null ? null : customer.name().getBytes(StandardCharsets.UTF_8);
+
+        final long stamp = lock.writeLock();
+        try {
+            int row = index[slotOf(index, ids, customer.id())] - 1;
+            if (row < 0) {
+                row = addRow(customer.id());
+            }
+
+            setActive(row, customer.active());
+            setName(row, name);
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Customer> list() {
+        final long stamp = lock.readLock();
+        try {
+            final var rows = this.rows;
+            final var result = new ArrayList<Customer>(rows);
+            for (int row = 0; row < rows; row++) {
+                result.add(materialize(row));
+            }
+            return Collections.unmodifiableList(result);
+        }
+        finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Customer> action) {
+        // the action runs outside of the lock, so a slow consumer doesn't hold the writers back
+        final var batch = new ArrayList<Customer>(BATCH_SIZE);
+        for (int from = 0; from < rows; ) {
+            final long stamp = lock.readLock();
+            try {
+                final int to = Math.min(rows, from + BATCH_SIZE);
+                for (int row = from; row < to; row++) {
+                    batch.add(materialize(row));
+                }
+                from = to;
+            }
+            finally {
+                lock.unlockRead(stamp);
+            }
+
+            batch.forEach(action);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public List<Customer> page(int afterId, int limit) {
+        return idIndex.page(this, afterId, limit);
+    }
+
+    private Customer find(int id) {
+        final var index = this.index;
+        final var ids = this.ids;
+        final int mask = index.length - 1;
+
+        for (int i = StripedCustomerStore.hash(id) & mask; ; i = (i + 1) & mask) {
+            final int row = index[i] - 1;
+            if (row < 0) return null;
+            if (ids[row] == id) return materialize(row);
+        }
+    }
+
+    private Customer materialize(int row) {
+        final var active = (this.active[row >>> 6] & (1L << row)) != 0;
+        return new Customer(ids[row], name(row), active);
+    }
+
+    private String name(int row) {
+        final int length = nameLengths[row];
+        if (length < 0) return null;
+
+        final var names = this.names;
+        final int offset = nameOffsets[row];
+        Objects.checkFromIndexSize(offset, length, names.capacity());
+
+        if (names.hasArray()) {
+            return new String(names.array(), names.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+
+        final var bytes = new byte[length];
+        names.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int addRow(int id) {
+        final int row = rows;
+        if (row == ids.length) {
+            final int capacity = row << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            active = Arrays.copyOf(active, (capacity + Long.SIZE - 1) / Long.SIZE);
+        }
+
+        ids[row] = id;
+        nameLengths[row] = -1;
+
+        if ((row + 1) * 4L > index.length * 3L) {
+            index = rehash(index.length << 1, row);
+        }
+        index[slotOf(index, ids, id)] = row + 1;
+        idIndex.add(id);
+
+        rows = row + 1;
+        return row;
+    }
+
+    private void setActive(int row, boolean value) {
+        if (value) {
+            active[row >>> 6] |= 1L << row;
+        }
+        else {
+            active[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    private void setName(int row, byte[] name) {
+        final int previous = Math.max(nameLengths[row], 0);
+        if (name == null) {
+            garbage += previous;
+            nameLengths[row] = -1;
+            return;
+        }
+
+        if (name.length <= previous) {
+            names.put(nameOffsets[row], name);
+            garbage += previous - name.length;
+        }
+        else {
+            garbage += previous;
+            nameLengths[row] = -1;
+            reserve(name.length);
+
+            names.put(namesSize, name);
+            nameOffsets[row] = namesSize;
+            namesSize += name.length;
+        }
+        nameLengths[row] = name.length;
+    }
+
+    /**
+     * Makes room for {@code length} more bytes in the arena dropping the overwritten names if they take too much of it
+     */
+    private void reserve(int length) {
+        if (names.capacity() - namesSize >= length) return;
+
+        final long live = (long) namesSize - garbage;
+        long capacity = names.capacity();
+        if (garbage * 2L < namesSize) {
+            // the names are mostly live, dropping the overwritten ones alone won't free enough room
+            capacity <<= 1;
+        }
+        while (capacity < live + length) {
+            capacity <<= 1;
+        }
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("The names of the customers don't fit into the arena");
+        }
+
+        final var compacted = allocate((int) capacity);
+        int size = 0;
+        for (int row = 0; row < rows; row++) {
+            final int nameLength = nameLengths[row];
+            if (nameLength < 0) continue;
+
+            compacted.put(size, names, nameOffsets[row], nameLength);
+            nameOffsets[row] = size;
+            size += nameLength;
+        }
+
+        names = compacted;
+        namesSize = size;
+        garbage = 0;
+    }
+
+    private int[] rehash(int capacity, int rows) {
+        final var rehashed = new int[capacity];
+        for (int row = 0; row < rows; row++) {
+            rehashed[slotOf(rehashed, ids, ids[row])] = row + 1;
+        }
+        return rehashed;
+    }
+
+    private static int slotOf(int[] index, int[] ids, int id) {
+        final int mask = index.length - 1;
+
+        int slot = StripedCustomerStore.hash(id) & mask;
+        while (index[slot] != 0 && ids[index[slot] - 1] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return offHeap ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
@@ -0,0 +1,665 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of customer writes split into memory-mapped segment files.
+ * <p>
+ * A record is {@code [length][crc32c][id][active][name length][name in UTF-8]}, a zero length marks the end of a segment.
+ * Appends go straight into the mapped buffer of the active segment, a background thread forces the written pages
+ * to the disk at a fixed interval, so concurrent writers waiting for durability share a single fsync.
+ * Sealed segments are compacted in the background into a run of segments that keeps only the latest record of every id.
+ * A compaction takes the sealed segments appended since the previous one along with the newest runs that aren't bigger
+ * than what it has taken so far, so a record is rewritten a logarithmic number of times instead of on every compaction.
+ * It keeps a bitset of the ids instead of the customers and copies the records as they are, the output is split
+ * into segments of the segment size.
+ * A failed fsync is fatal: the flusher stops, and the writers waiting for durability get the error instead of waiting forever.
+ */
+public class CustomerLog implements AutoCloseable {
+    private final static Logger LOG = LoggerFactory.getLogger(CustomerLog.class);
+
+    private static final String SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int COMPACTION_THRESHOLD = 4;
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition synced = lock.newCondition();
+    private final ReentrantLock compaction = new ReentrantLock();
+
+    // guarded by lock, the compacted runs from the oldest to the newest followed by the appended segments
+    private final List<Segment> sealed = new ArrayList<>();
+    private final List<Segment> unsynced = new ArrayList<>();
+    private Segment active;
+    private int position;
+    private long appended;
+    private long durable;
+    private boolean compactionScheduled;
+    private RuntimeException failure;
+
+    private final Thread flusher;
+    private final ExecutorService compactor;
+    private volatile boolean closed;
+
+    public CustomerLog(Path directory, int segmentSize, Duration syncInterval) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.syncIntervalNanos = syncInterval.toNanos();
+
+        try (Stream<Path> leftovers = Files.list(directory)) {
+            for (Path leftover : leftovers.filter(p -> p.toString().endsWith(COMPACTING_SUFFIX)).toList()) {
+                Files.delete(leftover);
+            }
+        }
+
+        final var segments = openSegments();
+        if (segments.isEmpty()) {
+            this.active = createSegment(0);
+        }
+        else if (segments.get(segments.size() - 1).compacted()) {
+            this.active = createSegment(segments.get(segments.size() - 1).generation() + 1);
+            this.sealed.addAll(segments);
+        }
+        else {
+            this.active = segments.remove(segments.size() - 1);
+            this.sealed.addAll(segments);
+        }
+        this.position = recover(active.buffer());
+
+        this.flusher = new Thread(this::flushPeriodically, "customer-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            final var thread = new Thread(r, "customer-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Feeds every record to the consumer in the order of appends, the mapped segments are read without copying
+     */
+    public void replay(Consumer<Customer> consumer) {
+        final List<Segment> segments;
+        lock.lock();
+        try {
+            segments = new ArrayList<>(sealed);
+            segments.add(active);
+        }
+        finally {
+            lock.unlock();
+        }
+
+        for (Segment segment : segments) {
+            scan(segment.buffer(), consumer);
+        }
+    }
+
+    /**
+     * @return the sequence number of the record to pass to {@link #awaitDurable(long)}
+     */
+    public long append(Customer customer) {
+        final var name = customer.name() == null ? null : customer.name().getBytes(StandardCharsets.UTF_8);
+        final var recordSize = HEADER_SIZE + payloadSize(name);
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("The customer " + customer.id() + " doesn't fit into a segment");
+        }
+
+        lock.lock();
+        try {
+            ensureOpen();
+            if (position + recordSize + Integer.BYTES > segmentSize) {
+                roll();
+            }
+
+            position = write(active.buffer(), position, customer, name);
+            return ++appended;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitDurable(long sequence) throws InterruptedException {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                ensureOpen();
+                ensureHealthy();
+                synced.await();
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all the appended records to the disk
+     */
+    public void sync() {
+        final long target;
+        final List<Segment> segments;
+        lock.lock();
+        try {
+            ensureHealthy();
+            if (durable == appended) return;
+
+            target = appended;
+            segments = new ArrayList<>(unsynced);
+            segments.add(active);
+        }
+        finally {
+            lock.unlock();
+        }
+
+        for (Segment segment : segments) {
+            force(segment.buffer());
+        }
+
+        lock.lock();
+        try {
+            // the sealed segments are forgotten only once they are forced, a failed force leaves them to the next sync
+            unsynced.removeAll(segments);
+            durable = Math.max(durable, target);
+            synced.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    int segmentCount() {
+        lock.lock();
+        try {
+            return sealed.size() + 1;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites all the sealed segments into one run that keeps only the latest record of every id
+     */
+    void compact() throws IOException {
+        compaction.lock();
+        try {
+            compactSealed(true);
+        }
+        finally {
+            compaction.unlock();
+        }
+    }
+
+    private void compactInBackground() {
+        compaction.lock();
+        try {
+            compactSealed(false);
+        }
+        catch (IOException | RuntimeException e) {
+            // the segments stay as they are, the next roll tries again
+            LOG.warn("Unable to compact the customer log in {}", directory, e);
+        }
+        finally {
+            compaction.unlock();
+        }
+    }
+
+    private void compactSealed(boolean all) throws IOException {
+        final List<Segment> candidates;
+        lock.lock();
+        try {
+            compactionScheduled = false;
+            candidates = all ? new ArrayList<>(sealed) : tieredCandidates();
+            // a run is named after the appended segment it ends with, so it never replaces the files of another run
+            if (candidates.size() < 2 || candidates.get(candidates.size() - 1).compacted()) return;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        final var compacted = writeCompacted(candidates);
+
+        lock.lock();
+        try {
+            // the candidates are contiguous, the segments sealed since then follow them
+            final var first = sealed.indexOf(candidates.get(0));
+            sealed.removeAll(candidates);
+            unsynced.removeAll(candidates);
+            sealed.addAll(first, compacted);
+        }
+        finally {
+            lock.unlock();
+        }
+
+        // the newest first: a run whose appended segment is still there may be incomplete and is dropped on the start
+        for (int i = candidates.size() - 1; i >= 0; i--) {
+            Files.deleteIfExists(candidates.get(i).path());
+        }
+    }
+
+    /**
+     * @return the appended sealed segments preceded by the newest runs, each of them no bigger than the segments after it
+     */
+    // guarded by lock
+    private List<Segment> tieredCandidates() {
+        int start = sealed.size();
+        long size = 0;
+        while (start > 0 && !sealed.get(start - 1).compacted()) {
+            size += sealed.get(--start).buffer().limit();
+        }
+        if (sealed.size() - start < COMPACTION_THRESHOLD) return List.of();
+
+        while (start > 0) {
+            final var generation = sealed.get(start - 1).generation();
+            int runStart = start;
+            long runSize = 0;
+            while (runStart > 0 && sealed.get(runStart - 1).compacted() && sealed.get(runStart - 1).generation() == generation) {
+                runSize += sealed.get(--runStart).buffer().limit();
+            }
+            if (runSize > size) break;
+
+            size += runSize;
+            start = runStart;
+        }
+        return new ArrayList<>(sealed.subList(start, sealed.size()));
+    }
+
+    @Override
+    public void close() {
+        try {
+            sync();
+        }
+        finally {
+            lock.lock();
+            try {
+                closed = true;
+                synced.signalAll();
+            }
+            finally {
+                lock.unlock();
+            }
+
+            flusher.interrupt();
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Forces the written pages of a segment to the disk
+     */
+    void force(MappedByteBuffer buffer) {
+        buffer.force();
+    }
+
+    private void roll() {
+        final var next = createSegment(active.generation() + 1);
+        sealed.add(active);
+        unsynced.add(active);
+        active = next;
+        position = 0;
+
+        if (!compactionScheduled && sealed.size() >= COMPACTION_THRESHOLD && !sealed.get(sealed.size() - COMPACTION_THRESHOLD).compacted()) {
+            compactionScheduled = true;
+            compactor.execute(this::compactInBackground);
+        }
+    }
+
+    private void flushPeriodically() {
+        while (!closed) {
+            LockSupport.parkNanos(syncIntervalNanos);
+            try {
+                sync();
+            }
+            catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    private void fail(RuntimeException e) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = e;
+            }
+            synced.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The customer log is closed");
+        }
+    }
+
+    // guarded by lock
+    private void ensureHealthy() {
+        if (failure != null) {
+            throw new IllegalStateException("The customer log failed to reach the disk", failure);
+        }
+    }
+
+    /**
+     * Copies the latest record of every id from the newest segment to the oldest into a run named after the newest one.
+     * The ids of a run are unique, so the order of its records doesn't matter to the replay.
+     */
+    private List<Segment> writeCompacted(List<Segment> candidates) throws IOException {
+        final var generation = candidates.get(candidates.size() - 1).generation();
+        final var seen = new IdIndex();
+        final var temporaries = new ArrayList<Path>();
+        try {
+            try (var writer = new RunWriter(generation, temporaries)) {
+                for (int s = candidates.size() - 1; s >= 0; s--) {
+                    final var buffer = candidates.get(s).buffer();
+                    final var offsets = offsetsOf(buffer);
+                    for (int i = offsets.length - 1; i >= 0; i--) {
+                        final var offset = offsets[i];
+                        if (seen.add(buffer.getInt(offset + HEADER_SIZE))) {
+                            writer.copy(buffer.slice(offset, HEADER_SIZE + buffer.getInt(offset)));
+                        }
+                    }
+                }
+            }
+
+            final var compacted = new ArrayList<Segment>(temporaries.size());
+            for (int part = 0; part < temporaries.size(); part++) {
+                final var path = directory.resolve(fileName(generation, part));
+                Files.move(temporaries.get(part), path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                compacted.add(new Segment(generation, part, path, map(path, (int) Files.size(path))));
+            }
+            return compacted;
+        }
+        catch (IOException | RuntimeException e) {
+            for (Path temporary : temporaries) {
+                Files.deleteIfExists(temporary);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the copied records into the temporary files of a run, a file is closed once the next record doesn't fit
+     * into a segment, so no file of the run is bigger than a segment
+     */
+    private final class RunWriter implements AutoCloseable {
+        private final long generation;
+        private final List<Path> temporaries;
+        private final ByteBuffer pending = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+
+        private FileChannel channel;
+        private int written;
+
+        private RunWriter(long generation, List<Path> temporaries) {
+            this.generation = generation;
+            this.temporaries = temporaries;
+        }
+
+        void copy(ByteBuffer record) throws IOException {
+            final var size = record.remaining();
+            if (channel == null || written + size + Integer.BYTES > segmentSize) {
+                finishPart();
+                final var temporary = directory.resolve(fileName(generation, temporaries.size()) + COMPACTING_SUFFIX);
+                temporaries.add(temporary);
+                channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            }
+
+            if (pending.remaining() < size) {
+                drain();
+            }
+            if (pending.remaining() < size) {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            else {
+                pending.put(record);
+            }
+            written += size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finishPart();
+        }
+
+        private void finishPart() throws IOException {
+            if (channel == null) return;
+
+            try (var finished = channel) {
+                channel = null;
+                // the zero length marks the end of the segment
+                if (pending.remaining() < Integer.BYTES) {
+                    drain(finished);
+                }
+                pending.putInt(0);
+                drain(finished);
+                finished.force(true);
+            }
+            written = 0;
+        }
+
+        private void drain() throws IOException {
+            drain(channel);
+        }
+
+        private void drain(FileChannel target) throws IOException {
+            pending.flip();
+            while (pending.hasRemaining()) {
+                target.write(pending);
+            }
+            pending.clear();
+        }
+    }
+
+    private List<Segment> openSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            final var paths = files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+
+            final var appended = new HashSet<Long>();
+            for (Path path : paths) {
+                if (partOf(path) < 0) {
+                    appended.add(generationOf(path));
+                }
+            }
+
+            final var segments = new ArrayList<Segment>(paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                final var path = paths.get(i);
+                final var generation = generationOf(path);
+                final var part = partOf(path);
+                if (part >= 0 && appended.contains(generation)) {
+                    // the compaction didn't get to delete the segments it read, its run may be incomplete
+                    Files.delete(path);
+                    continue;
+                }
+
+                // compacted segments are only as big as their records, the last appended one keeps taking appends
+                final var fileSize = Files.size(path);
+                if (fileSize > Integer.MAX_VALUE) {
+                    throw new IOException("The segment " + path + " is bigger than a mapped buffer can be");
+                }
+                final var size = i == paths.size() - 1 && part < 0 ? Math.max((int) fileSize, segmentSize) : (int) fileSize;
+                segments.add(new Segment(generation, part, path, map(path, size)));
+            }
+            return segments;
+        }
+    }
+
+    private static long generationOf(Path path) {
+        final var name = path.getFileName().toString();
+        final var separator = name.indexOf('-');
+        return Long.parseLong(name.substring(0, separator < 0 ? name.length() - SUFFIX.length() : separator));
+    }
+
+    private static int partOf(Path path) {
+        final var name = path.getFileName().toString();
+        final var separator = name.indexOf('-');
+        return separator < 0 ? -1 : Integer.parseInt(name.substring(separator + 1, name.length() - SUFFIX.length()));
+    }
+
+    private Segment createSegment(long generation) {
+        final var path = directory.resolve(fileName(generation, -1));
+        try {
+            return new Segment(generation, -1, path, map(path, segmentSize));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, int size) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * The parts of a run sort right before the appended segment they are named after, so they are replayed after
+     * the segments they were compacted from, if a crash left those behind
+     */
+    private static String fileName(long generation, int part) {
+        return part < 0 ? String.format("%020d%s", generation, SUFFIX) : String.format("%020d-%06d%s", generation, part, SUFFIX);
+    }
+
+    /**
+     * Finds the end of the valid records and wipes a torn record left by a crash, if any
+     */
+    private static int recover(ByteBuffer buffer) {
+        final var end = scan(buffer, null);
+        for (int i = end; i < Math.min(buffer.limit(), end + HEADER_SIZE); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        return end;
+    }
+
+    private static int scan(ByteBuffer buffer, Consumer<Customer> consumer) {
+        final var checksum = new CRC32C();
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.limit()) {
+            final var length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.limit()) break;
+
+            checksum.reset();
+            checksum.update(buffer.slice(position + HEADER_SIZE, length));
+            if ((int) checksum.getValue() != buffer.getInt(position + Integer.BYTES)) break;
+
+            if (consumer != null) {
+                consumer.accept(read(buffer, position + HEADER_SIZE));
+            }
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    /**
+     * @return the offsets of the valid records of a segment in the order of appends
+     */
+    private static int[] offsetsOf(ByteBuffer buffer) {
+        var offsets = new int[64];
+        int count = 0;
+        int position = 0;
+        final var end = scan(buffer, null);
+        while (position < end) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = position;
+            position += HEADER_SIZE + buffer.getInt(position);
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private static int payloadSize(byte[] name) {
+        return Integer.BYTES + 1 + Integer.BYTES + (name == null ? 0 : name.length);
+    }
+
+    private static int write(ByteBuffer buffer, int position, Customer customer, byte[] name) {
+        final var payload = position + HEADER_SIZE;
+        final var length = payloadSize(name);
+
+        buffer.putInt(payload, customer.id());
+        buffer.put(payload + Integer.BYTES, (byte) (customer.active() ? 1 : 0));
+        buffer.putInt(payload + Integer.BYTES + 1, name == null ? -1 : name.length);
+        if (name != null) {
+            buffer.put(payload + Integer.BYTES * 2 + 1, name);
+        }
+
+        final var checksum = new CRC32C();
+        checksum.update(buffer.slice(payload, length));
+        buffer.putInt(position + Integer.BYTES, (int) checksum.getValue());
+        // the length goes last, so a reader never sees a record that isn't fully written
+        buffer.putInt(position, length);
+        return payload + length;
+    }
+
+    private static Customer read(ByteBuffer buffer, int payload) {
+        final var id = buffer.getInt(payload);
+        final var active = buffer.get(payload + Integer.BYTES) != 0;
+        final var nameLength = buffer.getInt(payload + Integer.BYTES + 1);
+
+        String name = null;
+        if (nameLength >= 0) {
+            final var bytes = new byte[nameLength];
+            buffer.get(payload + Integer.BYTES * 2 + 1, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Customer(id, name, active);
+    }
+
+    /**
+     * @param part the position of the segment in its compacted run, negative for an appended segment
+     */
+    private record Segment(long generation, int part, Path path, MappedByteBuffer buffer) {
+        boolean compacted() {
+            return part >= 0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+public interface CustomerStore {
+    Customer get(int id);
+
+    void put(Customer customer);
+
+    /**
+     * Stores a batch of customers, a store may save the whole batch at once, e.g. wait for the disk only once
+     */
+    default void putAll(List<Customer> customers) {
+        for (Customer customer : customers) {
+            put(customer);
+        }
+    }
+
+    /**
+     * @return a consistent snapshot of all the customers, later writes are not visible through it
+     */
+    List<Customer> list();
+
+    int size();
+
+    /**
+     * Visits every customer without copying the store, the iteration is weakly consistent
+     */
+    void forEach(Consumer<? super Customer> action);
+
+    /**
+     * @return at most {@code limit} customers with ids greater than {@code afterId} in the ascending order of ids
+     */
+    default List<Customer> page(int afterId, int limit) {
+        final Comparator<Customer> byId = Comparator.comparingInt(Customer::id);
+        final var selected = new PriorityQueue<>(limit, byId.reversed());
+
+        forEach(customer -> {
+            if (customer.id() <= afterId) return;
+
+            if (selected.size() < limit) {
+                selected.add(customer);
+            }
+            else if (customer.id() < selected.peek().id()) {
+                selected.poll();
+                selected.add(customer);
+            }
+        });
+
+        final var result = new ArrayList<>(selected);
+        result.sort(byId);
+        return result;
+    }
+
+    /**
+     * @return a counter that grows on every write, {@code -1} if the store doesn't count the writes
+     */
+    default long version() {
+        return -1;
+    }
+
+    /**
+     * @return a counter that grows on every write of the customer and may grow on other writes as well,
+     * {@code -1} if the store doesn't count the writes
+     */
+    default long version(int id) {
+        return -1;
+    }
+
+    /**
+     * @return the customers with the given active flag in the ascending order of ids
+     */
+    default List<Customer> findByActive(boolean active) {
+        final var result = new ArrayList<Customer>();
+        forEach(customer -> {
+            if (customer.active() == active) {
+                result.add(customer);
+            }
+        });
+        result.sort(Comparator.comparingInt(Customer::id));
+        return result;
+    }
+
+    /**
+     * @return the customers whose names start with the prefix in the order of names
+     */
+    default List<Customer> findByNamePrefix(String prefix) {
+        final var result = new ArrayList<Customer>();
+        forEach(customer -> {
+            if (customer.name() != null && customer.name().startsWith(prefix)) {
+                result.add(customer);
+            }
+        });
+        result.sort(Comparator.comparing(Customer::name).thenComparingInt(Customer::id));
+        return result;
+    }
+}
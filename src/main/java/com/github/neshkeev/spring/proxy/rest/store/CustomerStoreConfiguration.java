@@ -0,0 +1,97 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.simple.CachePolicy;
+import com.github.neshkeev.spring.proxy.simple.CacheStatistics;
+import com.github.neshkeev.spring.proxy.simple.CachingInvocationHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class CustomerStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "customers.store", havingValue = "striped", matchIfMissing = true)
+    public CustomerStore stripedCustomerStore(
+            ObjectProvider<CustomerLog> customerLog,
+            ObjectProvider<CacheStatistics> cacheStatistics,
+            ObjectProvider<CachePolicy> cachePolicy,
+            @Value("${customers.persistence.durable-writes:true}") boolean durableWrites,
+            @Value("${customers.index.names:true}") boolean indexNames) {
+        return versioned(cached(persistent(indexed(new StripedCustomerStore(), indexNames), customerLog, durableWrites), cacheStatistics, cachePolicy));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customers.store", havingValue = "compact")
+    public CustomerStore compactCustomerStore(
+            ObjectProvider<CustomerLog> customerLog,
+            ObjectProvider<CacheStatistics> cacheStatistics,
+            ObjectProvider<CachePolicy> cachePolicy,
+            @Value("${customers.persistence.durable-writes:true}") boolean durableWrites,
+            @Value("${customers.compact.off-heap:false}") boolean offHeap,
+            @Value("${customers.index.names:true}") boolean indexNames) {
+        return versioned(cached(persistent(indexed(new CompactCustomerStore(offHeap), indexNames), customerLog, durableWrites), cacheStatistics, cachePolicy));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "customers.persistence.directory")
+    public CustomerLog customerLog(
+            @Value("${customers.persistence.directory}") Path directory,
+            @Value("${customers.persistence.segment-size:67108864}") int segmentSize,
+            @Value("${customers.persistence.sync-interval:5ms}") Duration syncInterval) throws IOException {
+        return new CustomerLog(directory, segmentSize, syncInterval);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "customers.cache.enabled", havingValue = "true")
+    public CacheStatistics cacheStatistics() {
+        return new CacheStatistics();
+    }
+
+    /**
+     * The cached customers are dropped by their ids on every write, a batch drops only the customers it writes
+     */
+    @Bean
+    @ConditionalOnProperty(name = "customers.cache.enabled", havingValue = "true")
+    public CachePolicy customerCachePolicy(
+            @Value("${customers.cache.max-size:10000}") int maxSize,
+            @Value("${customers.cache.ttl:60s}") Duration ttl) {
+        return new CachePolicy()
+                .memoize("get", maxSize, ttl.toMillis())
+                .invalidate("put", "get", "id")
+                .invalidate("putAll", "get", "id");
+    }
+
+    private static CustomerStore indexed(CustomerStore store, boolean indexNames) {
+        return new IndexedCustomerStore(store, indexNames);
+    }
+
+    private static CustomerStore persistent(CustomerStore store, ObjectProvider<CustomerLog> customerLog, boolean durableWrites) {
+        // the log is replayed through the indexes, so they are built on start
+        final var log = customerLog.getIfAvailable();
+        return log == null ? store : new PersistentCustomerStore(store, log, durableWrites);
+    }
+
+    private static CustomerStore cached(CustomerStore store, ObjectProvider<CacheStatistics> cacheStatistics,
+                                        ObjectProvider<CachePolicy> cachePolicy) {
+        final var statistics = cacheStatistics.getIfAvailable();
+        final var policy = cachePolicy.getIfAvailable();
+        if (statistics == null || policy == null) return store;
+
+        return (CustomerStore) Proxy.newProxyInstance(CustomerStore.class.getClassLoader(),
+                new Class[]{CustomerStore.class},
+                new CachingInvocationHandler<>(CustomerStore.class, store, policy, statistics));
+    }
+
+    private static CustomerStore versioned(CustomerStore store) {
+        // the versions are bumped after the cached customers are dropped, so a new version never comes with a stale customer
+        return new VersionedCustomerStore(store);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+/**
+ * A set of ids in ascending order as a sparse bitset: a skip list of blocks of 1024 ids each, a block is a bitset.
+ * Finding the first id after a cursor costs a lookup in the skip list, the next ones are read off the bits,
+ * so a page costs O(log N + limit). Consecutive ids take ~1 bit each, an isolated id takes a whole block.
+ * <p>
+ * A removed id leaves its block in place, the stores never remove customers, so the blocks don't pile up.
+ * The iteration is weakly consistent.
+ */
+final class IdIndex {
+    private static final int BLOCK_BITS = 10;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+    private static final int BLOCK_WORDS = (1 << BLOCK_BITS) / Long.SIZE;
+
+    private final ConcurrentSkipListMap<Integer, AtomicLongArray> blocks = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return whether the id wasn't in the set
+     */
+    boolean add(int id) {
+        final var block = blocks.computeIfAbsent(id >> BLOCK_BITS, key -> new AtomicLongArray(BLOCK_WORDS));
+
+        final int bit = id & BLOCK_MASK;
+        final long mask = 1L << bit;
+        if ((block.get(bit >>> 6) & mask) != 0) return false;
+
+        return (block.getAndAccumulate(bit >>> 6, mask, (word, added) -> word | added) & mask) == 0;
+    }
+
+    boolean contains(int id) {
+        final var block = blocks.get(id >> BLOCK_BITS);
+        if (block == null) return false;
+
+        final int bit = id & BLOCK_MASK;
+        return (block.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    void remove(int id) {
+        final var block = blocks.get(id >> BLOCK_BITS);
+        if (block == null) return;
+
+        final int bit = id & BLOCK_MASK;
+        final long mask = 1L << bit;
+        if ((block.get(bit >>> 6) & mask) != 0) {
+            block.getAndAccumulate(bit >>> 6, ~mask, (word, kept) -> word & kept);
+        }
+    }
+
+    /**
+     * Visits all the ids in the ascending order until the visitor returns {@code false}
+     */
+    void forEach(IntPredicate visitor) {
+        forEachFrom(Integer.MIN_VALUE, visitor);
+    }
+
+    /**
+     * Visits the ids greater than {@code afterId} in the ascending order until the visitor returns {@code false}
+     */
+    void forEachAfter(int afterId, IntPredicate visitor) {
+        if (afterId == Integer.MAX_VALUE) return;
+
+        forEachFrom(afterId + 1, visitor);
+    }
+
+    private void forEachFrom(int from, IntPredicate visitor) {
+        final int firstBlock = from >> BLOCK_BITS;
+        for (var entry : blocks.tailMap(firstBlock, true).entrySet()) {
+            final int base = entry.getKey() << BLOCK_BITS;
+            final int start = entry.getKey() == firstBlock ? from & BLOCK_MASK : 0;
+            final var words = entry.getValue();
+
+            for (int w = start >>> 6; w < BLOCK_WORDS; w++) {
+                var word = words.get(w);
+                if (w == start >>> 6) {
+                    word &= -1L << (start & 63);
+                }
+
+                for (; word != 0; word &= word - 1) {
+                    if (!visitor.test(base + w * Long.SIZE + Long.numberOfTrailingZeros(word))) return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return at most {@code limit} customers of the store with ids greater than {@code afterId} in the ascending order of ids
+     */
+    List<Customer> page(CustomerStore store, int afterId, int limit) {
+        final var result = new ArrayList<Customer>(Math.max(0, Math.min(limit, store.size())));
+        if (limit <= 0) return result;
+
+        forEachAfter(afterId, id -> {
+            final var customer = store.get(id);
+            if (customer != null) {
+                result.add(customer);
+            }
+            return result.size() < limit;
+        });
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Maintains secondary indexes over another store on every write, so a filtered query touches only the matching customers:
+ * the ids of the active and of the inactive customers in two {@link IdIndex} bitsets, ~2 bits per customer when the ids
+ * are dense, and the ids sorted by the names in a {@link NameIndex}, an array snapshot with a small delta of the recent writes.
+ * Without the name index a prefix query scans the store.
+ * The indexes are updated after the delegate, a query re-checks the customers it reads and skips the stale entries.
+ */
+public class IndexedCustomerStore implements CustomerStore {
+    private static final int LOCK_STRIPES = 64;
+
+    private final CustomerStore delegate;
+
+    private final IdIndex activeIds = new IdIndex();
+
+    private final IdIndex inactiveIds = new IdIndex();
+
+    private final NameIndex names;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public IndexedCustomerStore(CustomerStore delegate) {
+        this(delegate, true);
+    }
+
+    /**
+     * @param indexNames whether the names are kept in a sorted index for the prefix queries
+     */
+    public IndexedCustomerStore(CustomerStore delegate, boolean indexNames) {
+        this.delegate = delegate;
+        this.names = indexNames ? new NameIndex() : null;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        delegate.forEach(customer -> {
+            index(null, customer);
+            maintain();
+        });
+    }
+
+    @Override
+    public Customer get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public void put(Customer customer) {
+        synchronized (locks[customer.id() & (LOCK_STRIPES - 1)]) {
+            final var previous = delegate.get(customer.id());
+            delegate.put(customer);
+            index(previous, customer);
+        }
+        maintain();
+    }
+
+    @Override
+    public List<Customer> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Customer> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public List<Customer> page(int afterId, int limit) {
+        return delegate.page(afterId, limit);
+    }
+
+    @Override
+    public List<Customer> findByActive(boolean active) {
+        final var result = new ArrayList<Customer>();
+        (active ? activeIds : inactiveIds).forEach(id -> {
+            final var customer = delegate.get(id);
+            if (customer != null && customer.active() == active) {
+                result.add(customer);
+            }
+            return true;
+        });
+        return result;
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String prefix) {
+        if (names == null) return CustomerStore.super.findByNamePrefix(prefix);
+
+        return names.find(delegate, prefix);
+    }
+
+    private void index(Customer previous, Customer current) {
+        if (previous != null) {
+            if (previous.active() != current.active()) {
+                (previous.active() ? activeIds : inactiveIds).remove(previous.id());
+            }
+        }
+
+        (current.active() ? activeIds : inactiveIds).add(current.id());
+        if (names != null) {
+            names.update(previous, current);
+        }
+    }
+
+    private void maintain() {
+        if (names != null) {
+            names.maintain();
+        }
+    }
+}
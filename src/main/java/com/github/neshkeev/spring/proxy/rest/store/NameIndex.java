@@ -0,0 +1,265 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ids of the customers sorted by their names for the prefix queries, so a query costs O(log N + matches).
+ * <p>
+ * Most of the index is an immutable snapshot: the ids in the order of names and the names packed into one {@code char[]},
+ * ~8 bytes and 2 bytes per char of the name per customer. The writes since the snapshot go into a delta: a skip list
+ * of the new names and a bitset of the written ids, whose snapshot entries are stale. Once the delta outgrows a quarter
+ * of the snapshot, the writer that notices it merges both into a new snapshot, so a write costs O(1) amortized merging.
+ * <p>
+ * A writer checks that its delta is still the current one after the update and repeats it on the new delta otherwise,
+ * so a merge that started meanwhile doesn't lose it. The callers serialize the writes of an id.
+ */
+final class NameIndex {
+    private static final int MIN_DELTA = 4096;
+
+    private volatile State state = new State(Snapshot.EMPTY, null, new Delta());
+
+    private final AtomicBoolean merging = new AtomicBoolean();
+
+    void update(Customer previous, Customer current) {
+        Delta delta;
+        do {
+            delta = state.delta();
+            delta.update(previous, current);
+        }
+        while (delta != state.delta());
+
+        delta.writes.incrementAndGet();
+    }
+
+    /**
+     * Merges the delta into the snapshot once it's big enough, called without holding the locks of the writes
+     */
+    void maintain() {
+        final var current = state;
+        if (current.delta().writes.get() > Math.max(MIN_DELTA, current.snapshot().size() / 4)) {
+            merge();
+        }
+    }
+
+    /**
+     * @return the customers of the store whose names start with the prefix in the order of names,
+     * the entries the store doesn't agree with are skipped
+     */
+    List<Customer> find(CustomerStore store, String prefix) {
+        final var current = state;
+        final var result = new ArrayList<Customer>();
+
+        final var snapshot = current.snapshot();
+        for (int i = snapshot.lowerBound(prefix); i < snapshot.size() && snapshot.startsWith(i, prefix); i++) {
+            final var id = snapshot.ids[i];
+            if (current.delta().written(id) || current.merged() != null && current.merged().written(id)) continue;
+
+            final var customer = store.get(id);
+            if (customer != null && snapshot.nameEquals(i, customer.name())) {
+                result.add(customer);
+            }
+        }
+
+        if (current.merged() != null) {
+            current.merged().find(store, prefix, current.delta(), result);
+        }
+        current.delta().find(store, prefix, null, result);
+
+        if (current.merged() != null || !current.delta().names.isEmpty()) {
+            result.sort(Comparator.comparing(Customer::name).thenComparingInt(Customer::id));
+        }
+        return result;
+    }
+
+    private void merge() {
+        if (!merging.compareAndSet(false, true)) return;
+        try {
+            final var before = state;
+            // the new writes go into a fresh delta while the frozen one is merged, the queries read both meanwhile
+            state = new State(before.snapshot(), before.delta(), new Delta());
+
+            final var snapshot = Snapshot.merge(before.snapshot(), before.delta());
+            state = new State(snapshot, null, state.delta());
+        }
+        finally {
+            merging.set(false);
+        }
+    }
+
+    private record State(Snapshot snapshot, Delta merged, Delta delta) {
+    }
+
+    private record NameKey(String name, int id) implements Comparable<NameKey> {
+        @Override
+        public int compareTo(NameKey other) {
+            final var byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Integer.compare(id, other.id);
+        }
+    }
+
+    private static final class Delta {
+        private final ConcurrentSkipListSet<NameKey> names = new ConcurrentSkipListSet<>();
+
+        private final IdIndex written = new IdIndex();
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        void update(Customer previous, Customer current) {
+            written.add(current.id());
+            if (previous != null && previous.name() != null && !previous.name().equals(current.name())) {
+                names.remove(new NameKey(previous.name(), previous.id()));
+            }
+            if (current.name() != null) {
+                names.add(new NameKey(current.name(), current.id()));
+            }
+        }
+
+        boolean written(int id) {
+            return written.contains(id);
+        }
+
+        void find(CustomerStore store, String prefix, Delta newer, List<Customer> result) {
+            for (NameKey key : names.tailSet(new NameKey(prefix, Integer.MIN_VALUE))) {
+                if (!key.name().startsWith(prefix)) break;
+                if (newer != null && newer.written(key.id())) continue;
+
+                final var customer = store.get(key.id());
+                if (customer != null && key.name().equals(customer.name())) {
+                    result.add(customer);
+                }
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new int[0], new int[1], new char[0]);
+
+        // sorted by the name and then by the id, the name of ids[i] is chars[offsets[i]..offsets[i + 1])
+        private final int[] ids;
+        private final int[] offsets;
+        private final char[] chars;
+
+        private Snapshot(int[] ids, int[] offsets, char[] chars) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.chars = chars;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        /**
+         * Merges the entries of the snapshot that the delta didn't overwrite with the names of the delta.
+         * A late writer may still mark ids of the frozen delta as written, so the second pass may keep fewer entries
+         * than the first one counted, those writers repeat their writes on the new delta.
+         */
+        static Snapshot merge(Snapshot snapshot, Delta delta) {
+            final var keys = new ArrayList<>(delta.names);
+
+            int count = keys.size();
+            long length = 0;
+            for (NameKey key : keys) {
+                length += key.name().length();
+            }
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (!delta.written(snapshot.ids[i])) {
+                    count++;
+                    length += snapshot.offsets[i + 1] - snapshot.offsets[i];
+                }
+            }
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("The names don't fit into the name index");
+            }
+
+            final var ids = new int[count];
+            final var offsets = new int[count + 1];
+            final var chars = new char[(int) length];
+
+            int i = 0;
+            int k = 0;
+            int position = 0;
+            int out = 0;
+            while (true) {
+                while (i < snapshot.size() && delta.written(snapshot.ids[i])) {
+                    i++;
+                }
+                if (i == snapshot.size() && k == keys.size()) break;
+
+                final boolean fromSnapshot = i < snapshot.size()
+                        && (k == keys.size() || snapshot.compare(i, keys.get(k).name(), keys.get(k).id()) < 0);
+                if (fromSnapshot) {
+                    final var from = snapshot.offsets[i];
+                    final var nameLength = snapshot.offsets[i + 1] - from;
+                    System.arraycopy(snapshot.chars, from, chars, position, nameLength);
+                    ids[out] = snapshot.ids[i++];
+                    position += nameLength;
+                }
+                else {
+                    final var key = keys.get(k++);
+                    key.name().getChars(0, key.name().length(), chars, position);
+                    ids[out] = key.id();
+                    position += key.name().length();
+                }
+                offsets[++out] = position;
+            }
+            return out == count ? new Snapshot(ids, offsets, chars)
+                    : new Snapshot(Arrays.copyOf(ids, out), Arrays.copyOf(offsets, out + 1), Arrays.copyOf(chars, position));
+        }
+
+        /**
+         * @return the first position whose name isn't less than the prefix
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                final var middle = (low + high) >>> 1;
+                if (compare(middle, prefix, Integer.MIN_VALUE) < 0) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        boolean startsWith(int i, String prefix) {
+            final var from = offsets[i];
+            if (offsets[i + 1] - from < prefix.length()) return false;
+
+            for (int c = 0; c < prefix.length(); c++) {
+                if (chars[from + c] != prefix.charAt(c)) return false;
+            }
+            return true;
+        }
+
+        boolean nameEquals(int i, String name) {
+            return name != null && offsets[i + 1] - offsets[i] == name.length() && startsWith(i, name);
+        }
+
+        /**
+         * Compares the entry with the name and the id the way {@link NameKey} does
+         */
+        int compare(int i, String name, int id) {
+            final var from = offsets[i];
+            final var length = offsets[i + 1] - from;
+            final var common = Math.min(length, name.length());
+            for (int c = 0; c < common; c++) {
+                final var byChar = Character.compare(chars[from + c], name.charAt(c));
+                if (byChar != 0) return byChar;
+            }
+            final var byLength = Integer.compare(length, name.length());
+            return byLength != 0 ? byLength : Integer.compare(ids[i], id);
+        }
+    }
+}
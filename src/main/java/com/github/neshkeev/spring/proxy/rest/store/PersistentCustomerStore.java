@@ -0,0 +1,112 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the customers in memory and appends every write to a {@link CustomerLog}, the log is replayed on start.
+ * Writes of the same id are serialized, so the order of the records in the log matches the order of the in-memory writes.
+ */
+public class PersistentCustomerStore implements CustomerStore {
+    private static final int LOCK_STRIPES = 64;
+
+    private final CustomerStore delegate;
+
+    private final CustomerLog log;
+
+    private final boolean durableWrites;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param durableWrites whether {@link #put(Customer)} returns only after its record reaches the disk
+     */
+    public PersistentCustomerStore(CustomerStore delegate, CustomerLog log, boolean durableWrites) {
+        this.delegate = delegate;
+        this.log = log;
+        this.durableWrites = durableWrites;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        log.replay(delegate::put);
+    }
+
+    @Override
+    public Customer get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public void put(Customer customer) {
+        final long sequence;
+        synchronized (locks[customer.id() & (LOCK_STRIPES - 1)]) {
+            sequence = log.append(customer);
+            delegate.put(customer);
+        }
+
+        if (!durableWrites) return;
+
+        try {
+            log.awaitDurable(sequence);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the customer " + customer.id() + " to be saved", e);
+        }
+    }
+
+    @Override
+    public void putAll(List<Customer> customers) {
+        long sequence = -1;
+        for (Customer customer : customers) {
+            synchronized (locks[customer.id() & (LOCK_STRIPES - 1)]) {
+                sequence = log.append(customer);
+                delegate.put(customer);
+            }
+        }
+
+        if (!durableWrites || sequence < 0) return;
+
+        // the records are durable in the order of the sequence numbers, so the last one covers the batch
+        try {
+            log.awaitDurable(sequence);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + customers.size() + " customers to be saved", e);
+        }
+    }
+
+    @Override
+    public List<Customer> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Customer> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public List<Customer> page(int afterId, int limit) {
+        return delegate.page(afterId, limit);
+    }
+
+    @Override
+    public List<Customer> findByActive(boolean active) {
+        return delegate.findByActive(active);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String prefix) {
+        return delegate.findByNamePrefix(prefix);
+    }
+}
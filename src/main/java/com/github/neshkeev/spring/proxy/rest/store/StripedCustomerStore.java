@@ -0,0 +1,187 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Customers are spread over lock-striped open-addressing tables keyed by the primitive id.
+ * Reads never lock: a slot holds the customer itself, so its id is the key and a single volatile read
+ * of the slot observes both. Writers lock only their stripe, resizing publishes a fully built table.
+ * The ids are also kept in an {@link IdIndex}, so a page is read in the order of ids without a scan.
+ */
+public class StripedCustomerStore implements CustomerStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    private final IdIndex ids = new IdIndex();
+
+    public StripedCustomerStore() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public StripedCustomerStore(int concurrency) {
+        final var stripeCount = Integer.highestOneBit(Math.max(1, concurrency - 1) << 1);
+
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Customer get(int id) {
+        final int hash = hash(id);
+        return stripeFor(hash).get(id, hash);
+    }
+
+    @Override
+    public void put(Customer customer) {
+        final int hash = hash(customer.id());
+        if (stripeFor(hash).put(customer, hash)) {
+            // indexed after the customer is visible, so a page never reads an id it can't get
+            ids.add(customer.id());
+        }
+    }
+
+    @Override
+    public List<Customer> list() {
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+        }
+
+        try {
+            final var result = new ArrayList<Customer>(size());
+            for (Stripe stripe : stripes) {
+                stripe.collect(result);
+            }
+            return Collections.unmodifiableList(result);
+        }
+        finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super Customer> action) {
+        for (Stripe stripe : stripes) {
+            stripe.forEach(action);
+        }
+    }
+
+    @Override
+    public List<Customer> page(int afterId, int limit) {
+        return ids.page(this, afterId, limit);
+    }
+
+    private Stripe stripeFor(int hash) {
+        // the top bits choose the stripe while the bottom ones choose the slot inside of it
+        return stripeShift == Integer.SIZE ? stripes[0] : stripes[hash >>> stripeShift];
+    }
+
+    static int hash(int id) {
+        final int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe extends ReentrantLock {
+        private volatile AtomicReferenceArray<Customer> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+        private volatile int size;
+
+        private Customer get(int id, int hash) {
+            final var table = this.table;
+            final int mask = table.length() - 1;
+
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                final var customer = table.get(i);
+                if (customer == null || customer.id() == id) return customer;
+            }
+        }
+
+        /**
+         * @return whether the id is new to the stripe
+         */
+        private boolean put(Customer customer, int hash) {
+            lock();
+            try {
+                var table = this.table;
+                int slot = slotOf(table, customer.id(), hash);
+
+                if (table.get(slot) != null) {
+                    table.set(slot, customer);
+                    return false;
+                }
+
+                if ((size + 1) * 4L > table.length() * 3L) {
+                    table = resize(table);
+                    slot = slotOf(table, customer.id(), hash);
+                    table.lazySet(slot, customer);
+                    this.table = table;
+                }
+                else {
+                    table.set(slot, customer);
+                }
+                size++;
+                return true;
+            }
+            finally {
+                unlock();
+            }
+        }
+
+        private static int slotOf(AtomicReferenceArray<Customer> table, int id, int hash) {
+            final int mask = table.length() - 1;
+
+            int slot = hash & mask;
+            for (var current = table.get(slot); current != null && current.id() != id; current = table.get(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static AtomicReferenceArray<Customer> resize(AtomicReferenceArray<Customer> table) {
+            final var resized = new AtomicReferenceArray<Customer>(table.length() << 1);
+            for (int i = 0; i < table.length(); i++) {
+                final var customer = table.get(i);
+                if (customer == null) continue;
+
+                resized.lazySet(slotOf(resized, customer.id(), hash(customer.id())), customer);
+            }
+            return resized;
+        }
+
+        private void collect(List<Customer> result) {
+            forEach(result::add);
+        }
+
+        private void forEach(Consumer<? super Customer> action) {
+            final var table = this.table;
+            for (int i = 0; i < table.length(); i++) {
+                final var customer = table.get(i);
+                if (customer != null) {
+                    action.accept(customer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Counts the writes to another store: the global version grows on every write,
+ * the version of a customer is the global version of the last write to its slot in a fixed table of stamps.
+ * The ids sharing a slot share the stamp, so a version may grow without its customer changing, but never stays
+ * the same when the customer changes, and the table takes the same memory for any number of customers.
+ * A version is bumped after the write, a reader reads the version before the customers.
+ */
+public class VersionedCustomerStore implements CustomerStore {
+    private static final int STAMPS = 1 << 16;
+
+    private final CustomerStore delegate;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMPS);
+
+    public VersionedCustomerStore(CustomerStore delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public long version(int id) {
+        return stamps.get(slotOf(id));
+    }
+
+    @Override
+    public Customer get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public void put(Customer customer) {
+        delegate.put(customer);
+        stamp(customer.id(), version.incrementAndGet());
+    }
+
+    @Override
+    public void putAll(List<Customer> customers) {
+        delegate.putAll(customers);
+
+        final var next = version.incrementAndGet();
+        for (Customer customer : customers) {
+            stamp(customer.id(), next);
+        }
+    }
+
+    @Override
+    public List<Customer> list() {
+        return delegate.list();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Customer> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public List<Customer> page(int afterId, int limit) {
+        return delegate.page(afterId, limit);
+    }
+
+    @Override
+    public List<Customer> findByActive(boolean active) {
+        return delegate.findByActive(active);
+    }
+
+    @Override
+    public List<Customer> findByNamePrefix(String prefix) {
+        return delegate.findByNamePrefix(prefix);
+    }
+
+    private void stamp(int id, long version) {
+        // concurrent writes to a slot may finish out of order, the stamp keeps the latest version
+        final var slot = slotOf(id);
+        for (long current = stamps.get(slot); current < version; current = stamps.get(slot)) {
+            if (stamps.compareAndSet(slot, current, version)) return;
+        }
+    }
+
+    private static int slotOf(int id) {
+        return StripedCustomerStore.hash(id) & (STAMPS - 1);
+    }
+}
@@ -0,0 +1,5 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+public interface BulkPasswordGenerator {
+    String[] getPasswords(int count);
+}
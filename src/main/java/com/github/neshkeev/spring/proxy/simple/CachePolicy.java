@@ -0,0 +1,73 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which methods {@link CachingInvocationHandler} caches and which ones drop the cached results, by the method names.
+ * It keeps the settings out of the cached interface, a handler without a policy reads them from
+ * the {@link Memoized} and {@link Invalidates} annotations instead.
+ */
+public final class CachePolicy {
+    private final Map<String, Memoization> memoized = new HashMap<>();
+
+    private final Map<String, Invalidation> invalidations = new HashMap<>();
+
+    private final boolean annotated;
+
+    public CachePolicy() {
+        this(false);
+    }
+
+    private CachePolicy(boolean annotated) {
+        this.annotated = annotated;
+    }
+
+    /**
+     * @return the policy of the annotations on the methods, the overloads of a method may differ
+     */
+    static CachePolicy annotated() {
+        return new CachePolicy(true);
+    }
+
+    /**
+     * Caches the results of the methods with the name the way {@link Memoized} does
+     */
+    public CachePolicy memoize(String method, int maxSize, long ttlMillis) {
+        memoized.put(method, new Memoization(maxSize, ttlMillis));
+        return this;
+    }
+
+    /**
+     * A call of the methods with the name drops the cached results of the {@code memoized} methods
+     * the way {@link Invalidates} does
+     *
+     * @param key the accessor of the first argument, or of its every element if it's an {@link Iterable},
+     *            the empty string drops all the results
+     */
+    public CachePolicy invalidate(String method, String memoized, String key) {
+        invalidations.put(method, new Invalidation(memoized, key));
+        return this;
+    }
+
+    Memoization memoization(Method method) {
+        if (!annotated) return memoized.get(method.getName());
+
+        final var annotation = method.getAnnotation(Memoized.class);
+        return annotation == null ? null : new Memoization(annotation.maxSize(), annotation.ttlMillis());
+    }
+
+    Invalidation invalidation(Method method) {
+        if (!annotated) return invalidations.get(method.getName());
+
+        final var annotation = method.getAnnotation(Invalidates.class);
+        return annotation == null ? null : new Invalidation(annotation.value(), annotation.key());
+    }
+
+    record Memoization(int maxSize, long ttlMillis) {
+    }
+
+    record Invalidation(String memoized, String key) {
+    }
+}
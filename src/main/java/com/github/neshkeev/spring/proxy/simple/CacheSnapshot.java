@@ -0,0 +1,4 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+public record CacheSnapshot(long hits, long misses, long evictions, int size) {
+}
@@ -0,0 +1,34 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import com.github.neshkeev.spring.proxy.jmx.JmxExporter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The hits, misses and evictions of the caches of {@link CachingInvocationHandler}s keyed by the memoized method
+ * as {@code Type.method(parameter types)}.
+ * Declare it as a bean to export the statistics as an MBean.
+ */
+@JmxExporter(threadSafe = true, mapping = JmxExporter.Mapping.OPEN_TYPE)
+public class CacheStatistics {
+    private final ConcurrentMap<String, MemoCache> caches = new ConcurrentHashMap<>();
+
+    void register(String name, MemoCache cache) {
+        if (caches.putIfAbsent(name, cache) != null) {
+            throw new IllegalArgumentException("The statistics of " + name + " are already registered");
+        }
+    }
+
+    public Map<String, CacheSnapshot> snapshot() {
+        final var result = new TreeMap<String, CacheSnapshot>();
+        caches.forEach((name, cache) -> result.put(name, cache.snapshot()));
+        return result;
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(MemoCache::invalidateAll);
+    }
+}
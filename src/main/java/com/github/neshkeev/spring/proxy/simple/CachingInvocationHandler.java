@@ -0,0 +1,182 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A read-through cache in front of the memoized methods of an interface, the invalidating methods drop the cached results,
+ * both are taken from a {@link CachePolicy} or the {@link Memoized} and {@link Invalidates} annotations. A single argument is the cache key itself, so a key costs no allocations
+ * on top of the arguments array of the proxy.
+ * A miss puts its entry into the cache before it calls the delegate, so an invalidation that follows a write
+ * drops the results that are still being computed from the stale state as well.
+ */
+public class CachingInvocationHandler<T> implements InvocationHandler {
+    private static final Object NO_ARGS_KEY = new Object();
+
+    private final T delegate;
+
+    private final Map<Method, MemoCache> memoized = new HashMap<>();
+
+    private final Map<Method, Invalidation> invalidations = new HashMap<>();
+
+    public CachingInvocationHandler(Class<T> type, T delegate) {
+        this(type, delegate, null);
+    }
+
+    /**
+     * @param statistics exports the statistics of the caches, {@code null} keeps them private
+     */
+    public CachingInvocationHandler(Class<T> type, T delegate, CacheStatistics statistics) {
+        this(type, delegate, CachePolicy.annotated(), statistics);
+    }
+
+    /**
+     * @param statistics exports the statistics of the caches, {@code null} keeps them private
+     */
+    public CachingInvocationHandler(Class<T> type, T delegate, CachePolicy policy, CacheStatistics statistics) {
+        this.delegate = delegate;
+
+        final var caches = new HashMap<String, List<MemoCache>>();
+        for (Method method : type.getMethods()) {
+            final var memoization = policy.memoization(method);
+            if (memoization == null) continue;
+
+            final var cache = new MemoCache(memoization.maxSize(), memoization.ttlMillis());
+            memoized.put(method, cache);
+            caches.computeIfAbsent(method.getName(), __ -> new ArrayList<>()).add(cache);
+            if (statistics != null) {
+                statistics.register(statisticsName(type, method), cache);
+            }
+        }
+
+        for (Method method : type.getMethods()) {
+            final var invalidation = policy.invalidation(method);
+            if (invalidation == null) continue;
+
+            final var targets = caches.get(invalidation.memoized());
+            if (targets == null) {
+                throw new IllegalArgumentException(method + " invalidates " + invalidation.memoized() + " which isn't memoized");
+            }
+            invalidations.put(method, new Invalidation(targets.toArray(new MemoCache[0]),
+                    keyOf(method, invalidation.key()), isEach(method, invalidation.key())));
+        }
+    }
+
+    /**
+     * @return {@code Type.method(parameter types)}, the parameters keep the overloads apart
+     */
+    private static String statisticsName(Class<?> type, Method method) {
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", type.getSimpleName() + "." + method.getName() + "(", ")"));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final var cache = memoized.get(method);
+        if (cache != null) {
+            return cache.get(keyOf(args), () -> invokeDelegate(method, args));
+        }
+
+        final var result = invokeDelegate(method, args);
+
+        final var invalidation = invalidations.get(method);
+        if (invalidation != null) {
+            invalidation.apply(args);
+        }
+        return result;
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object keyOf(Object[] args) {
+        if (args == null || args.length == 0) return NO_ARGS_KEY;
+        if (args.length == 1) return args[0] == null ? NO_ARGS_KEY : args[0];
+        return Arrays.asList(args.clone());
+    }
+
+    /**
+     * @return whether the key is taken from every element of an {@link Iterable} argument
+     */
+    private static boolean isEach(Method method, String accessor) {
+        return !accessor.isEmpty() && Iterable.class.isAssignableFrom(method.getParameterTypes()[0]);
+    }
+
+    private static MethodHandle keyOf(Method method, String accessor) {
+        if (accessor.isEmpty()) return null;
+
+        if (method.getParameterCount() == 0) {
+            throw new IllegalArgumentException(method + " has no argument to take the " + accessor + " key from");
+        }
+        try {
+            final var argumentType = isEach(method, accessor) ? elementType(method) : method.getParameterTypes()[0];
+            return MethodHandles.publicLookup()
+                    .unreflect(argumentType.getMethod(accessor))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Unable to take the " + accessor + " key from the argument of " + method, e);
+        }
+    }
+
+    private static Class<?> elementType(Method method) {
+        if (method.getGenericParameterTypes()[0] instanceof ParameterizedType type
+                && type.getActualTypeArguments().length == 1
+                && type.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        throw new IllegalArgumentException("Unable to tell the type of the elements of the argument of " + method);
+    }
+
+    private record Invalidation(MemoCache[] caches, MethodHandle key, boolean each) {
+        void apply(Object[] args) throws Throwable {
+            if (key == null || args[0] == null) {
+                invalidateAll();
+                return;
+            }
+
+            if (!each) {
+                invalidate(args[0]);
+                return;
+            }
+            for (Object element : (Iterable<?>) args[0]) {
+                if (element == null) {
+                    invalidateAll();
+                    return;
+                }
+                invalidate(element);
+            }
+        }
+
+        private void invalidate(Object argument) throws Throwable {
+            final var value = key.invokeExact(argument);
+            for (MemoCache cache : caches) {
+                cache.invalidate(value);
+            }
+        }
+
+        private void invalidateAll() {
+            for (MemoCache cache : caches) {
+                cache.invalidateAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import com.github.neshkeev.spring.proxy.jmx.JmxExporter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The counters of a {@link SampledCallLog}. Declare it as a bean to export them as an MBean,
+ * it's kept apart from the log, so the JMX clients can neither record calls nor close the log.
+ */
+@JmxExporter(threadSafe = true)
+public class CallLogStatistics {
+    private final LongAdder logged = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final int capacity;
+
+    CallLogStatistics(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getLogged() {
+        return logged.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    void logged() {
+        logged.increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+}
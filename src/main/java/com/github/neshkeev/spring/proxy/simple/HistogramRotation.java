@@ -0,0 +1,30 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls the {@link LatencyHistograms} over every window until closed.
+ * It's kept apart from the histograms, so closing it isn't an operation of their MBean.
+ */
+public class HistogramRotation implements AutoCloseable {
+    private final ScheduledExecutorService rotation;
+
+    public HistogramRotation(LatencyHistograms histograms, Duration window) {
+        this.rotation = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "latency-histograms-rotation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final var millis = window.toMillis();
+        rotation.scheduleAtFixedRate(histograms::rotate, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        rotation.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds a single proxy that applies an ordered list of interceptors instead of a proxy per concern.
+ * The interceptors that apply to a method are resolved on its first call, so a call costs one proxy dispatch
+ * plus the interceptors of the method, and the delegate is called once through a bound {@link MethodHandle}.
+ */
+public final class InterceptingProxyFactory {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private InterceptingProxyFactory() {
+    }
+
+    /**
+     * @param interceptors are applied in the order of the list, the first one is the outermost
+     */
+    public static <T> T proxy(Class<T> type, T delegate, List<? extends Interceptor> interceptors) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class[]{type},
+                new ChainInvocationHandler(delegate, interceptors.toArray(new Interceptor[0]))));
+    }
+
+    public static <T> T proxy(Class<T> type, T delegate, Interceptor... interceptors) {
+        return proxy(type, delegate, List.of(interceptors));
+    }
+
+    private static final class ChainInvocationHandler implements InvocationHandler {
+        private final Object delegate;
+
+        private final Interceptor[] interceptors;
+
+        private final ConcurrentMap<Method, Chain> chains = new ConcurrentHashMap<>();
+
+        private ChainInvocationHandler(Object delegate, Interceptor[] interceptors) {
+            this.delegate = delegate;
+            this.interceptors = interceptors;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var chain = chains.get(method);
+            if (chain == null) {
+                chain = chains.computeIfAbsent(method, this::newChain);
+            }
+
+            if (chain.interceptors().length == 0) {
+                return chain.invokeDelegate(args);
+            }
+            return new Invocation(chain, args).proceed();
+        }
+
+        private Chain newChain(Method method) {
+            final var applicable = new ArrayList<Interceptor>(interceptors.length);
+            for (Interceptor interceptor : interceptors) {
+                if (interceptor.appliesTo(method)) {
+                    applicable.add(interceptor);
+                }
+            }
+            return new Chain(method, applicable.toArray(new Interceptor[0]), delegate, invokerOf(method, delegate));
+        }
+    }
+
+    record Chain(Method method, Interceptor[] interceptors, Object delegate, MethodHandle invoker) {
+
+        Object invokeDelegate(Object[] args) throws Throwable {
+            if (invoker != null) {
+                return invoker.invokeExact(args == null ? NO_ARGS : args);
+            }
+
+            try {
+                return method.invoke(delegate, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static MethodHandle invokerOf(Method method, Object delegate) {
+        try {
+            final var parameterCount = method.getParameterCount();
+            return MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .bindTo(delegate)
+                    .asType(MethodType.genericMethodType(parameterCount))
+                    .asSpreader(Object[].class, parameterCount);
+        }
+        catch (IllegalAccessException e) {
+            // the interface isn't public, so fallback to the reflective call
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.reflect.Method;
+
+/**
+ * A concern applied to the calls of a proxy built by {@link InterceptingProxyFactory}
+ */
+@FunctionalInterface
+public interface Interceptor {
+
+    /**
+     * @return whether the interceptor takes part in the calls of the method, asked once per method
+     */
+    default boolean appliesTo(Method method) {
+        return true;
+    }
+
+    /**
+     * @return the result of the call, usually the one of {@link Invocation#proceed()}
+     */
+    Object intercept(Invocation invocation) throws Throwable;
+}
@@ -0,0 +1,125 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * The concerns of {@link LoggerWrapperInvocationHandler} as interceptors for {@link InterceptingProxyFactory}
+ */
+public final class Interceptors {
+    private final static Logger LOG = LoggerFactory.getLogger(Interceptors.class);
+
+    private Interceptors() {
+    }
+
+    /**
+     * Logs every call at the start and at the end, the methods of {@link Object} aren't logged
+     */
+    public static Interceptor logging() {
+        return new Interceptor() {
+            @Override
+            public boolean appliesTo(Method method) {
+                return method.getDeclaringClass() != Object.class;
+            }
+
+            @Override
+            public Object intercept(Invocation invocation) throws Throwable {
+                final var name = invocation.method().getName();
+                LOG.info("Start executing {}", name);
+
+                final var start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                }
+                finally {
+                    LOG.info("End executing {} which took {}ns", name, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    /**
+     * Logs a sample of the calls on the thread of the call log, the methods of {@link Object} aren't logged
+     */
+    public static Interceptor sampledLogging(SampledCallLog callLog) {
+        return new Interceptor() {
+            @Override
+            public boolean appliesTo(Method method) {
+                return method.getDeclaringClass() != Object.class;
+            }
+
+            @Override
+            public Object intercept(Invocation invocation) throws Throwable {
+                final var start = System.nanoTime();
+                var failed = true;
+                try {
+                    final var result = invocation.proceed();
+                    failed = false;
+                    return result;
+                }
+                finally {
+                    callLog.record(invocation.method(), System.nanoTime() - start, failed);
+                }
+            }
+        };
+    }
+
+    /**
+     * Records the latency of every call, the methods of {@link Object} aren't recorded
+     */
+    public static Interceptor latency(LatencyHistograms histograms) {
+        return new Interceptor() {
+            @Override
+            public boolean appliesTo(Method method) {
+                return method.getDeclaringClass() != Object.class;
+            }
+
+            @Override
+            public Object intercept(Invocation invocation) throws Throwable {
+                final var start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                }
+                finally {
+                    histograms.record(invocation.method(), System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    /**
+     * Emits a flight recorder event per call, a disabled event costs a check of its flag
+     */
+    public static Interceptor flightRecorder() {
+        return new Interceptor() {
+            @Override
+            public boolean appliesTo(Method method) {
+                return method.getDeclaringClass() != Object.class;
+            }
+
+            @Override
+            public Object intercept(Invocation invocation) throws Throwable {
+                final var event = new ProxyInvocationEvent();
+                event.begin();
+                var failed = true;
+                try {
+                    final var result = invocation.proceed();
+                    failed = false;
+                    return result;
+                }
+                finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.type = invocation.method().getDeclaringClass().getName();
+                        event.method = invocation.method().getName();
+                        event.arguments = invocation.arguments() == null ? 0 : invocation.arguments().length;
+                        event.failed = failed;
+                        event.commit();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A call of the method drops the cached results of the {@link Memoized} methods of the same interface
+ * after the call completes
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Invalidates {
+    /**
+     * The name of the {@link Memoized} methods
+     */
+    String value();
+
+    /**
+     * The accessor of the first argument that returns the argument of a single-argument {@link Memoized} method,
+     * e.g. {@code id} of a record, an {@link Iterable} argument drops the result of its every element;
+     * the empty string drops all the results
+     */
+    String key() default "";
+}
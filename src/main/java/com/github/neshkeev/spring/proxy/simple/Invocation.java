@@ -0,0 +1,49 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.reflect.Method;
+
+/**
+ * A call passing through the interceptors of a method, the delegate is called after the last one
+ */
+public final class Invocation {
+    private final InterceptingProxyFactory.Chain chain;
+
+    private final Object[] args;
+
+    private int next;
+
+    Invocation(InterceptingProxyFactory.Chain chain, Object[] args) {
+        this.chain = chain;
+        this.args = args;
+    }
+
+    public Method method() {
+        return chain.method();
+    }
+
+    /**
+     * @return the arguments of the call, an interceptor may replace them before proceeding
+     */
+    public Object[] arguments() {
+        return args;
+    }
+
+    /**
+     * Calls the next interceptor or the delegate, an interceptor may proceed more than once, e.g. to retry
+     */
+    public Object proceed() throws Throwable {
+        final var interceptors = chain.interceptors();
+        final int current = next;
+        if (current == interceptors.length) {
+            return chain.invokeDelegate(args);
+        }
+
+        next = current + 1;
+        try {
+            return interceptors[current].intercept(this);
+        }
+        finally {
+            next = current;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free log-linear histogram of nanosecond latencies: every power of two is split into 32 buckets,
+ * which bounds the relative error by ~3%. Recording is a single atomic increment and never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        final var value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    public LatencySnapshot snapshot() {
+        return snapshot(this, null);
+    }
+
+    /**
+     * @return the snapshot of both histograms merged, the second one may be {@code null}
+     */
+    static LatencySnapshot snapshot(LatencyHistogram first, LatencyHistogram second) {
+        final var counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = first.counts.get(i) + (second == null ? 0 : second.counts.get(i));
+            total += counts[i];
+        }
+
+        final var max = Math.max(first.max.get(), second == null ? 0 : second.max.get());
+        return new LatencySnapshot(total,
+                percentile(counts, total, max, 0.5),
+                percentile(counts, total, max, 0.99),
+                percentile(counts, total, max, 0.999),
+                max);
+    }
+
+    private static long percentile(long[] counts, long total, long max, double quantile) {
+        if (total == 0) return 0;
+
+        final var rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, highestValueOf(i));
+            }
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long mantissa = index % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + mantissa * width + width - 1;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import com.github.neshkeev.spring.proxy.jmx.JmxExporter;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latency histograms per proxied {@link Method}. With a {@link HistogramRotation} the histograms roll over:
+ * a snapshot covers the current window and the previous complete one.
+ * Declare it as a bean to export the histograms as an MBean, only {@link #snapshot()} and {@link #reset()} are public,
+ * so the proxies record into it and the JMX clients can't.
+ */
+@JmxExporter(threadSafe = true, mapping = JmxExporter.Mapping.OPEN_TYPE)
+public class LatencyHistograms {
+    private final ConcurrentMap<Method, Window> histograms = new ConcurrentHashMap<>();
+
+    void record(Method method, long nanos) {
+        var window = histograms.get(method);
+        if (window == null) {
+            window = histograms.computeIfAbsent(method, __ -> new Window());
+        }
+        window.current.record(nanos);
+    }
+
+    public Map<String, LatencySnapshot> snapshot() {
+        final var result = new TreeMap<String, LatencySnapshot>();
+        histograms.forEach((method, window) -> result.put(nameOf(method), window.snapshot()));
+        return result;
+    }
+
+    public void reset() {
+        histograms.values().forEach(Window::reset);
+    }
+
+    void rotate() {
+        histograms.values().forEach(Window::rotate);
+    }
+
+    private static String nameOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private static final class Window {
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+
+        private synchronized void rotate() {
+            final var stale = previous;
+            stale.reset();
+            previous = current;
+            current = stale;
+        }
+
+        private synchronized void reset() {
+            current.reset();
+            previous.reset();
+        }
+
+        private LatencySnapshot snapshot() {
+            return LatencyHistogram.snapshot(current, previous);
+        }
+    }
+}
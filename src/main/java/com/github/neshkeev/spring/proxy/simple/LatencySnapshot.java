@@ -0,0 +1,4 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+public record LatencySnapshot(long count, long p50, long p99, long p999, long max) {
+}
@@ -5,28 +5,78 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.time.Duration;
-import java.time.LocalDateTime;
 
 public class LoggerWrapperInvocationHandler<T> implements InvocationHandler {
     private final static Logger LOG = LoggerFactory.getLogger(LoggerWrapperInvocationHandler.class);
 
     private final T delegate;
 
+    private final LatencyHistograms histograms;
+
+    private final boolean logging;
+
+    private final SampledCallLog callLog;
+
     public LoggerWrapperInvocationHandler(T delegate) {
+        this(delegate, null, true);
+    }
+
+    /**
+     * @param histograms records the latency of every call, {@code null} disables the metrics
+     * @param logging whether every call is logged at the start and at the end
+     */
+    public LoggerWrapperInvocationHandler(T delegate, LatencyHistograms histograms, boolean logging) {
         this.delegate = delegate;
+        this.histograms = histograms;
+        this.logging = logging;
+        this.callLog = null;
+    }
+
+    /**
+     * @param histograms records the latency of every call, {@code null} disables the metrics
+     * @param callLog logs a sample of the calls on its own thread instead of logging every call synchronously
+     */
+    public LoggerWrapperInvocationHandler(T delegate, LatencyHistograms histograms, SampledCallLog callLog) {
+        this.delegate = delegate;
+        this.histograms = histograms;
+        this.logging = false;
+        this.callLog = callLog;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        LOG.info("Start executing {}", method.getName());
-        final var start = LocalDateTime.now();
+        if (logging) {
+            LOG.info("Start executing {}", method.getName());
+        }
+
+        final var event = new ProxyInvocationEvent();
+        event.begin();
+        final var start = System.nanoTime();
+        var failed = true;
         try {
-            return method.invoke(delegate, args);
+            final var result = method.invoke(delegate, args);
+            failed = false;
+            return result;
         }
         finally {
-            final var end = LocalDateTime.now();
-            LOG.info("End executing {} which took {}ns", method.getName(), Duration.between(start, end).toNanos());
+            final var elapsed = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = method.getDeclaringClass().getName();
+                event.method = method.getName();
+                event.arguments = args == null ? 0 : args.length;
+                event.failed = failed;
+                event.commit();
+            }
+            if (histograms != null) {
+                histograms.record(method, elapsed);
+            }
+            if (callLog != null) {
+                callLog.record(method, elapsed, failed);
+            }
+            if (logging) {
+                LOG.info("End executing {} which took {}ns", method.getName(), elapsed);
+            }
         }
     }
 }
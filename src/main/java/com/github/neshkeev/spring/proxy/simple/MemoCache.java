@@ -0,0 +1,162 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache with the CLOCK eviction, an approximation of LRU: a hit only sets the referenced flag of the entry,
+ * the evictor walks the entries in the insertion order and gives the referenced ones a second chance.
+ * Concurrent misses of the same key wait for a single computation.
+ */
+final class MemoCache {
+
+    @FunctionalInterface
+    interface Loader {
+        Object load() throws Throwable;
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final ConcurrentMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger clockSize = new AtomicInteger();
+    private final ReentrantLock evicting = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    MemoCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000 : 0;
+    }
+
+    Object get(Object key, Loader loader) throws Throwable {
+        while (true) {
+            final var entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.isExpired()) {
+                    hits.increment();
+                    entry.referenced = true;
+                    return entry.await();
+                }
+                entries.remove(key, entry);
+                continue;
+            }
+
+            final var created = new Entry(key);
+            if (entries.putIfAbsent(key, created) != null) continue;
+
+            misses.increment();
+            clock.offer(created);
+            clockSize.incrementAndGet();
+            evict();
+
+            final Object value;
+            try {
+                value = loader.load();
+            }
+            catch (Throwable e) {
+                entries.remove(key, created);
+                created.result.completeExceptionally(e);
+                throw e;
+            }
+            created.complete(value, ttlNanos);
+            return value;
+        }
+    }
+
+    void invalidate(Object key) {
+        entries.remove(key);
+    }
+
+    void invalidateAll() {
+        entries.clear();
+    }
+
+    CacheSnapshot snapshot() {
+        return new CacheSnapshot(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void evict() {
+        if (entries.size() <= maxSize && clockSize.get() <= 2 * maxSize) return;
+        if (!evicting.tryLock()) return;
+
+        try {
+            // the clock keeps the entries that were invalidated or expired until it gets to them
+            for (int i = clockSize.get(); i > 0 && clockSize.get() > 2 * maxSize; i--) {
+                final var entry = clock.poll();
+                if (entry == null) break;
+
+                if (entries.get(entry.key) == entry) {
+                    clock.offer(entry);
+                }
+                else {
+                    clockSize.decrementAndGet();
+                }
+            }
+
+            while (entries.size() > maxSize) {
+                final var entry = clock.poll();
+                if (entry == null) break;
+
+                if (entries.get(entry.key) != entry) {
+                    clockSize.decrementAndGet();
+                }
+                else if (entry.referenced) {
+                    entry.referenced = false;
+                    clock.offer(entry);
+                }
+                else {
+                    clockSize.decrementAndGet();
+                    if (entries.remove(entry.key, entry)) {
+                        evictions.increment();
+                    }
+                }
+            }
+        }
+        finally {
+            evicting.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final Object key;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private volatile boolean referenced;
+        private volatile long expiresAt;
+
+        private Entry(Object key) {
+            this.key = key;
+        }
+
+        private void complete(Object value, long ttlNanos) {
+            if (ttlNanos > 0) {
+                expiresAt = System.nanoTime() + ttlNanos;
+            }
+            result.complete(value);
+        }
+
+        private boolean isExpired() {
+            final var expiresAt = this.expiresAt;
+            return expiresAt != 0 && System.nanoTime() - expiresAt > 0;
+        }
+
+        private Object await() throws Throwable {
+            try {
+                return result.join();
+            }
+            catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The results of the method are cached by {@link CachingInvocationHandler} per arguments
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Memoized {
+    /**
+     * How many results are kept, the least recently used ones are evicted first
+     */
+    int maxSize() default 1024;
+
+    /**
+     * How long a result is kept after it was computed, non-positive means until it's evicted
+     */
+    long ttlMillis() default 0;
+}
@@ -0,0 +1,73 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue of many producers and a single consumer. Every slot carries a sequence number:
+ * a producer claims a position with a CAS and publishes the element by advancing the sequence of its slot,
+ * the consumer takes the element once the sequence says it's published and frees the slot for the next lap.
+ * A full ring fails the offer instead of waiting.
+ */
+final class MpscRing<E> {
+    private final Object[] elements;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    // only the consumer thread reads and writes the head
+    private long head;
+
+    MpscRing(int capacity) {
+        final var size = Integer.highestOneBit(Math.max(2, capacity - 1) << 1);
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+
+    boolean offer(E element) {
+        var position = tail.get();
+        while (true) {
+            final var slot = (int) (position & mask);
+            final var distance = sequences.get(slot) - position;
+
+            if (distance == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            }
+            else if (distance < 0) {
+                // the consumer hasn't freed the slot of the previous lap yet
+                return false;
+            }
+            else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        final var slot = (int) (head & mask);
+        if (sequences.get(slot) != head + 1) return null;
+
+        final var element = (E) elements[slot];
+        elements[slot] = null;
+        sequences.lazySet(slot, head + elements.length);
+        head++;
+        return element;
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * Generates passwords straight into byte buffers from the {@link #ALPHABET}.
+ * Every thread has its own {@link SecureRandom} along with a scratch buffer of random bytes that is consumed across calls
+ * and refilled only once it's used up, every random byte is mapped onto the alphabet with a bit mask and a rejection,
+ * so there is no modulo bias.
+ */
+final class Passwords {
+    static final byte[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MASK = 0x3F;
+    private static final int SCRATCH_SIZE = 4096;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<Entropy> ENTROPY = ThreadLocal.withInitial(Entropy::new);
+
+    private Passwords() {
+    }
+
+    static String generate(int size) {
+        final var password = new byte[size];
+        fill(password, 0, size);
+        return new String(password, StandardCharsets.ISO_8859_1);
+    }
+
+    static String[] generate(int count, int size) {
+        final var result = new String[count];
+
+        // the passwords are generated in chunks, so a large request neither overflows nor allocates it all at once
+        final int perChunk = Math.max(1, Math.min(count, CHUNK_SIZE / Math.max(1, size)));
+        final var chunk = new byte[perChunk * size];
+        for (int first = 0; first < count; first += perChunk) {
+            final int passwords = Math.min(perChunk, count - first);
+            fill(chunk, 0, passwords * size);
+            for (int i = 0; i < passwords; i++) {
+                result[first + i] = new String(chunk, i * size, size, StandardCharsets.ISO_8859_1);
+            }
+        }
+        return result;
+    }
+
+    static void fill(byte[] target, int from, int to) {
+        final var entropy = ENTROPY.get();
+        final var scratch = entropy.scratch;
+        int position = entropy.position;
+        int i = from;
+        while (i < to) {
+            if (position == scratch.length) {
+                entropy.random.nextBytes(scratch);
+                position = 0;
+            }
+            for (; position < scratch.length && i < to; position++) {
+                final int index = scratch[position] & MASK;
+                if (index < ALPHABET.length) {
+                    target[i++] = ALPHABET[index];
+                }
+            }
+        }
+        entropy.position = position;
+    }
+
+    private static final class Entropy {
+        private final SecureRandom random = new SecureRandom();
+        private final byte[] scratch = new byte[SCRATCH_SIZE];
+
+        // the bytes before the position are used up, the buffer starts exhausted
+        private int position = SCRATCH_SIZE;
+    }
+}
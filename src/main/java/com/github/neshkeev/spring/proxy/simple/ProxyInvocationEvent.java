@@ -0,0 +1,30 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call through a proxy, the fields are only filled when the event is going to be committed
+ */
+@Name("com.github.neshkeev.spring.proxy.ProxyInvocation")
+@Label("Proxy Invocation")
+@Category({"Spring Proxy", "Proxy"})
+@Description("A method call through a JDK proxy")
+@StackTrace(false)
+final class ProxyInvocationEvent extends Event {
+    @Label("Interface")
+    String type;
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    int arguments;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,137 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Logs a sample of the proxied calls off the calling threads: the calls slower than the threshold are always logged,
+ * the others are logged with the sampling rate of their method. The records go into a lock-free ring
+ * that a background thread drains, a record that doesn't fit into the ring is dropped and counted.
+ * Declare its {@link #statistics()} as a bean to export the counters as an MBean.
+ */
+public class SampledCallLog implements AutoCloseable {
+    private final static Logger LOG = LoggerFactory.getLogger(SampledCallLog.class);
+
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    public record Call(Method method, long elapsedNanos, boolean failed) {
+    }
+
+    private final MpscRing<Call> ring;
+
+    private final double samplingRate;
+
+    private final Map<String, Double> samplingRates;
+
+    private final long slowCallNanos;
+
+    private final ConcurrentMap<Method, Double> rates = new ConcurrentHashMap<>();
+
+    private final Consumer<Call> sink;
+
+    private final CallLogStatistics statistics;
+
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param samplingRate the share of the calls that are logged, from 0 to 1
+     * @param samplingRates the rates of specific methods keyed by {@code Interface.method} or by the method name
+     * @param slowCallThreshold the calls that take at least as long are always logged, {@code null} disables it
+     */
+    public SampledCallLog(int capacity, double samplingRate, Map<String, Double> samplingRates, Duration slowCallThreshold) {
+        this(capacity, samplingRate, samplingRates, slowCallThreshold, SampledCallLog::log);
+    }
+
+    SampledCallLog(int capacity, double samplingRate, Map<String, Double> samplingRates, Duration slowCallThreshold,
+                   Consumer<Call> sink) {
+        this.ring = new MpscRing<>(capacity);
+        this.samplingRate = samplingRate;
+        this.samplingRates = Map.copyOf(samplingRates);
+        this.slowCallNanos = slowCallThreshold == null ? Long.MAX_VALUE : slowCallThreshold.toNanos();
+        this.sink = sink;
+        this.statistics = new CallLogStatistics(ring.capacity());
+
+        this.drainer = new Thread(this::drain, "sampled-call-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Never blocks: the call is either skipped by the sampling, queued or dropped
+     */
+    void record(Method method, long elapsedNanos, boolean failed) {
+        if (elapsedNanos < slowCallNanos) {
+            final var rate = rateOf(method);
+            if (rate <= 0 || rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) return;
+        }
+
+        if (!ring.offer(new Call(method, elapsedNanos, failed))) {
+            statistics.dropped();
+        }
+    }
+
+    public CallLogStatistics statistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join();
+    }
+
+    private double rateOf(Method method) {
+        final var rate = rates.get(method);
+        return rate != null ? rate : rates.computeIfAbsent(method, this::resolveRate);
+    }
+
+    private double resolveRate(Method method) {
+        final var rate = samplingRates.get(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        return rate != null ? rate : samplingRates.getOrDefault(method.getName(), samplingRate);
+    }
+
+    private void drain() {
+        while (true) {
+            final var stopping = !running;
+
+            Call call;
+            while ((call = ring.poll()) != null) {
+                try {
+                    sink.accept(call);
+                    statistics.logged();
+                }
+                catch (RuntimeException e) {
+                    LOG.warn("Unable to log a call of {}", call.method().getName(), e);
+                }
+            }
+
+            // the records queued before the stop are drained on the last pass
+            if (stopping) return;
+            LockSupport.parkNanos(this, DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    private static void log(Call call) {
+        if (call.failed()) {
+            LOG.info("Executed {}.{} which took {}ns and failed",
+                    call.method().getDeclaringClass().getSimpleName(), call.method().getName(), call.elapsedNanos());
+        }
+        else {
+            LOG.info("Executed {}.{} which took {}ns",
+                    call.method().getDeclaringClass().getSimpleName(), call.method().getName(), call.elapsedNanos());
+        }
+    }
+}
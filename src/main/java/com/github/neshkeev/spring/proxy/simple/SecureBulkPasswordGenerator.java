@@ -0,0 +1,79 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Generates passwords in bulk, optionally keeping a buffer of passwords that a background thread pre-generates,
+ * so callers take the ready ones and generate inline only the ones the buffer is short of.
+ */
+public class SecureBulkPasswordGenerator implements BulkPasswordGenerator, AutoCloseable {
+    private static final int PREGENERATION_BATCH = 256;
+
+    private final int size;
+
+    private final BlockingQueue<String> pregenerated;
+
+    private final Thread pregenerator;
+
+    public SecureBulkPasswordGenerator(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * @param buffer how many passwords to pre-generate in the background, {@code 0} disables the pre-generation
+     */
+    public SecureBulkPasswordGenerator(int size, int buffer) {
+        this.size = size;
+
+        if (buffer > 0) {
+            this.pregenerated = new ArrayBlockingQueue<>(buffer);
+            this.pregenerator = new Thread(this::pregenerate, "password-pregenerator");
+            this.pregenerator.setDaemon(true);
+            this.pregenerator.start();
+        }
+        else {
+            this.pregenerated = null;
+            this.pregenerator = null;
+        }
+    }
+
+    @Override
+    public String[] getPasswords(int count) {
+        if (pregenerated == null) {
+            return Passwords.generate(count, size);
+        }
+
+        final var ready = new ArrayList<String>(count);
+        pregenerated.drainTo(ready, count);
+        if (ready.size() == count) {
+            return ready.toArray(String[]::new);
+        }
+
+        final var result = ready.toArray(new String[count]);
+        final var generated = Passwords.generate(count - ready.size(), size);
+        System.arraycopy(generated, 0, result, ready.size(), generated.length);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (pregenerator != null) {
+            pregenerator.interrupt();
+        }
+    }
+
+    private void pregenerate() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                for (String password : Passwords.generate(PREGENERATION_BATCH, size)) {
+                    pregenerated.put(password);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.junit.jupiter.api.Test;
+
+import javax.management.openmbean.CompositeData;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ArgumentDecoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testPrimitives() throws Exception {
+        final var decoder = ArgumentDecoder.of(int.class, objectMapper);
+
+        assertThat(decoder.accepts(Integer.class), is(true));
+        assertThat(decoder.accepts(String.class), is(true));
+        assertThat(decoder.accepts(Long.class), is(false));
+        assertThat(decoder.accepts(CompositeData.class), is(false));
+        assertThat(decoder.decode("42"), is(equalTo(42)));
+        assertThat(decoder.decode("\"42\""), is(equalTo(42)));
+        assertThat(ArgumentDecoder.of(Boolean.class, objectMapper).decode("true"), is(equalTo(true)));
+        assertThat(ArgumentDecoder.of(double.class, objectMapper).decode("0.5"), is(equalTo(0.5)));
+    }
+
+    @Test
+    public void testJson() throws Exception {
+        final var decoder = ArgumentDecoder.of(Customer.class, objectMapper);
+
+        assertThat(decoder.decode("{\"id\":1,\"name\":\"John Snow\",\"active\":true}"),
+                is(equalTo(new Customer(1, "John Snow", true))));
+    }
+
+    @Test
+    public void testCompositeData() throws Exception {
+        final var customer = new Customer(1, "John Snow", true);
+        final var data = OpenTypeMapping.of(Customer.class).toOpenValue(customer);
+        final var decoder = ArgumentDecoder.of(Customer.class, objectMapper);
+
+        assertThat(decoder.accepts(data.getClass()), is(true));
+        assertThat(decoder.decode(data), is(equalTo(customer)));
+
+        final var type = OpenTypeMappingTest.Holder.class.getMethod("customers").getGenericReturnType();
+        final var table = OpenTypeMapping.of(type).toOpenValue(Map.of("john", customer));
+        final var map = (Map<?, ?>) ArgumentDecoder.of(Map.class, objectMapper).decode(table);
+        assertThat(map.keySet(), contains("john"));
+
+        final var array = OpenTypeMapping.of(ListHolder.class.getMethod("customers").getGenericReturnType())
+                .toOpenValue(List.of(customer));
+        assertThat(ArgumentDecoder.of(Customer[].class, objectMapper).decode(array),
+                is(equalTo(new Customer[]{customer})));
+    }
+
+    public interface ListHolder {
+        List<Customer> customers();
+    }
+}
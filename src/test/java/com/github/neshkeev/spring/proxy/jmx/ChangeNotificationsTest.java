@@ -0,0 +1,60 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.Notification;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ChangeNotificationsTest {
+
+    @Test
+    public void testClose() throws Exception {
+        final var received = new LinkedBlockingQueue<Notification>();
+        final var notifications = new ChangeNotifications("test.changed", "Test", Duration.ofMinutes(1), 100);
+        notifications.addNotificationListener((notification, handback) -> received.add(notification), null, null);
+
+        notifications.changed(1);
+        notifications.changed(2);
+        final var start = System.nanoTime();
+        notifications.close();
+        // the pending changes don't wait for the window
+        assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.SECONDS.toNanos(5))));
+        notifications.changed(3);
+
+        final var notification = received.poll(5, TimeUnit.SECONDS);
+        assertThat(notification, is(notNullValue()));
+        assertThat((Object[]) notification.getUserData(), arrayContainingInAnyOrder(1, 2));
+        assertThat(received.poll(200, TimeUnit.MILLISECONDS), is(nullValue()));
+
+        final var threads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("jmx-change-notifications-test.changed"))
+                .toList();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+            assertThat(thread.isAlive(), is(false));
+        }
+    }
+
+    @Test
+    public void testOverflow() throws Exception {
+        final var received = new LinkedBlockingQueue<Notification>();
+        final var notifications = new ChangeNotifications("test.changed", "Test", Duration.ofMinutes(1), 2);
+        notifications.addNotificationListener((notification, handback) -> received.add(notification), null, null);
+
+        notifications.changed(1);
+        notifications.changed(1);
+        notifications.changed(2);
+        notifications.changed(3);
+        notifications.close();
+
+        final var notification = received.poll(5, TimeUnit.SECONDS);
+        assertThat(notification, is(notNullValue()));
+        assertThat(notification.getUserData(), is(nullValue()));
+        assertThat(notification.getMessage(), is(equalTo("More than 2 changed")));
+    }
+}
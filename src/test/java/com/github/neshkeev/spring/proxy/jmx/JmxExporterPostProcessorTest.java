@@ -0,0 +1,152 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshkeev.spring.proxy.rest.CustomerController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JmxExporterPostProcessorTest {
+    private static final String LAZY_NAME = JmxExporterPostProcessorTest.class.getPackageName() + ":type=basic,name=lazyGreeter";
+
+    @Test
+    public void testIndex() {
+        final var index = JmxExporterIndex.load(getClass().getClassLoader());
+
+        assertThat(index, is(notNullValue()));
+        assertThat(index.contains(CustomerController.class), is(true));
+        assertThat(index.contains(LazyGreeter.class), is(true));
+        assertThat(index.contains(String.class), is(false));
+    }
+
+    @Test
+    public void testGeneratedDispatcher() throws Exception {
+        final var dispatcher = (JmxDispatcher) Class.forName(LazyGreeter.class.getName() + JmxDispatcher.SUFFIX)
+                .getConstructor()
+                .newInstance();
+        assertThat(dispatcher.names(), is(arrayContaining("greet", "greet")));
+
+        final var invocable = new MBeanInvocable(new ObjectMapper());
+        final var greeter = new LazyGreeter();
+        assertThat(invocable.getResult(greeter, "greet", new Object[]{"World"}), is(equalTo("Hello, World!")));
+        assertThat(invocable.getResult(greeter, "greet", new Object[]{"World", 2}), is(equalTo("Hello, World! x2")));
+        assertThat(invocable.getResult(greeter, "greet", new Object[]{"World", "3"}), is(equalTo("Hello, World! x3")));
+        assertThat(invocable.getResult(greeter, "toString", new Object[0]), is(equalTo(greeter.toString())));
+        assertThrows(NoSuchMethodException.class, () -> invocable.getResult(greeter, "greet", new Object[]{1L}));
+    }
+
+    @Test
+    public void testRuntimeHints() throws Exception {
+        final var hints = new RuntimeHints();
+        new JmxRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.resource().forResource(JmxExporterProcessor.INDEX).test(hints), is(true));
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(LazyGreeter.class.getMethod("greet", String.class)).test(hints), is(true));
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(LazyGreeter.class.getName() + JmxDispatcher.SUFFIX))
+                .test(hints), is(true));
+    }
+
+    @Test
+    public void testLazyRegistration() throws Exception {
+        final var initializations = new AtomicInteger();
+        final var postProcessor = new JmxExporterPostProcessor(new MBeanInvocable(new ObjectMapper()) {
+            @Override
+            public void invalidate(Class<?> type) {
+                initializations.incrementAndGet();
+                super.invalidate(type);
+            }
+        });
+
+        postProcessor.postProcessAfterInitialization(new LazyGreeter(), "lazyGreeter");
+
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        final var name = new ObjectName(LAZY_NAME);
+        assertThat(server.isRegistered(name), is(true));
+        assertThat(initializations.get(), is(equalTo(0)));
+
+        assertThat(server.invoke(name, "greet", new Object[]{"World"}, new String[]{String.class.getName()}),
+                is(equalTo("Hello, World!")));
+        assertThat(server.getMBeanInfo(name).getOperations(), is(not(emptyArray())));
+        assertThat(initializations.get(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        final var postProcessor = new JmxExporterPostProcessor(new MBeanInvocable(new ObjectMapper()));
+        postProcessor.postProcessAfterInitialization(new LazyGreeter(), "lazyGreeter");
+
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        final var name = new ObjectName(LAZY_NAME);
+        final var file = Files.createTempFile("jmx-events", ".jfr");
+        try (var recording = new Recording()) {
+            for (String event : List.of("JmxOperation", "JmxResolution", "ArgumentConversion", "ResultSerialization")) {
+                recording.enable("com.github.neshkeev.spring.proxy." + event).withoutThreshold();
+            }
+            recording.start();
+
+            server.invoke(name, "greet", new Object[]{"World", "3"}, new String[0]);
+            server.invoke(name, "toString", new Object[0], new String[0]);
+
+            recording.stop();
+            recording.dump(file);
+
+            final var events = RecordingFile.readAllEvents(file).stream()
+                    .collect(Collectors.groupingBy(event -> event.getEventType().getName().substring("com.github.neshkeev.spring.proxy.".length())));
+
+            assertThat(events.get("JmxOperation").stream().map(event -> event.getString("operation")).toList(),
+                    contains("greet", "toString"));
+            assertThat(events.get("JmxOperation").get(0).getString("bean"), is(equalTo(LAZY_NAME)));
+
+            final var conversion = events.get("ArgumentConversion").get(0);
+            assertThat(conversion.getClass("parameterType").getName(), is(equalTo("int")));
+            assertThat(conversion.getLong("size"), is(equalTo(1L)));
+
+            assertThat(events.get("ResultSerialization").get(0).getLong("size"), is(equalTo((long) "Hello, World! x3".length())));
+            final var resolutions = events.get("JmxResolution");
+            assertThat(resolutions.stream().map(event -> event.getString("operation")).toList(), contains("greet", "toString"));
+            assertThat(resolutions.get(0).getBoolean("generated"), is(true));
+            assertThat(resolutions.get(0).getString("method"), endsWith("LazyGreeter.greet(java.lang.String,int)"));
+            assertThat(resolutions.get(1).getBoolean("generated"), is(false));
+            assertThat(resolutions.get(1).getBoolean("cached"), is(false));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        final var name = new ObjectName(LAZY_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @JmxExporter(lazy = true)
+    public static class LazyGreeter {
+        public String greet(String name) {
+            return "Hello, " + name + "!";
+        }
+
+        public String greet(String name, int times) {
+            return greet(name) + " x" + times;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import com.github.neshkeev.spring.proxy.rest.CustomerController;
+import org.junit.jupiter.api.Test;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class OpenTypeMappingTest {
+
+    @Test
+    public void testRecord() throws Exception {
+        final var mapping = OpenTypeMapping.of(Customer.class);
+        final var data = (CompositeData) mapping.toOpenValue(new Customer(1, "John Snow", true));
+
+        assertThat(mapping.openType(), is(instanceOf(CompositeType.class)));
+        assertThat(((CompositeType) mapping.openType()).getType("id"), is(equalTo(SimpleType.INTEGER)));
+        assertThat(data.get("id"), is(equalTo(1)));
+        assertThat(data.get("name"), is(equalTo("John Snow")));
+        assertThat(data.get("active"), is(equalTo(true)));
+        assertThat(OpenTypeMapping.of(Customer.class), is(sameInstance(mapping)));
+    }
+
+    @Test
+    public void testCollection() throws Exception {
+        final var mapping = OpenTypeMapping.of(CustomerController.class.getMethod("list").getGenericReturnType());
+        final var data = (CompositeData[]) mapping.toOpenValue(List.of(new Customer(1, "John Snow", true)));
+
+        assertThat(data, arrayWithSize(1));
+        assertThat(data[0].get("name"), is(equalTo("John Snow")));
+    }
+
+    @Test
+    public void testMap() throws Exception {
+        final var mapping = OpenTypeMapping.of(Holder.class.getMethod("customers").getGenericReturnType());
+        final var data = (TabularData) mapping.toOpenValue(Map.of("john", new Customer(1, "John Snow", true)));
+
+        final var row = data.get(new Object[]{"john"});
+        assertThat(((CompositeData) row.get("value")).get("id"), is(equalTo(1)));
+    }
+
+    @Test
+    public void testUnmappable() {
+        assertThat(OpenTypeMapping.of(Object.class), is(nullValue()));
+        assertThat(OpenTypeMapping.of(List.class), is(nullValue()));
+    }
+
+    public interface Holder {
+        Map<String, Customer> customers();
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.neshkeev.spring.proxy.jmx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OperationExecutorTest {
+
+    @Test
+    public void testExecute() throws Exception {
+        final var executor = new OperationExecutor(0, 1_000);
+
+        assertThat(executor.execute(() -> "Hello, World!"), is(equalTo("Hello, World!")));
+        assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+            throw new IllegalStateException();
+        }));
+    }
+
+    @Test
+    public void testTimeout() {
+        final var executor = new OperationExecutor(0, 50);
+
+        assertThrows(TimeoutException.class, () -> executor.execute(() -> {
+            Thread.sleep(10_000);
+            return null;
+        }));
+    }
+
+    @Test
+    public void testConcurrencyLimit() throws Exception {
+        final var executor = new OperationExecutor(1, 100);
+        final var latch = new CountDownLatch(1);
+
+        final var ticket = executor.submit(() -> latch.await(10, TimeUnit.SECONDS));
+        assertThrows(TimeoutException.class, () -> executor.execute(() -> null));
+
+        latch.countDown();
+        assertThat(executor.execute(() -> 42), is(equalTo(42)));
+        assertThat(executor.fetch(ticket), hasEntry("status", "DONE"));
+    }
+
+    @Test
+    public void testStuckOperationKeepsItsSlot() throws Exception {
+        final var executor = new OperationExecutor(1, 100);
+        final var release = new CountDownLatch(1);
+
+        assertThrows(TimeoutException.class, () -> executor.execute(() -> {
+            // ignores the interrupt of the timeout
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    // keep waiting
+                }
+            }
+            return null;
+        }));
+        assertThrows(TimeoutException.class, () -> executor.execute(() -> null));
+
+        release.countDown();
+        assertThat(executor.execute(() -> 42), is(equalTo(42)));
+    }
+
+    @Test
+    public void testSubmitAndFetch() throws Exception {
+        final var executor = new OperationExecutor(0, 0);
+        final var latch = new CountDownLatch(1);
+
+        final var ticket = executor.submit(() -> {
+            latch.await();
+            return "done";
+        });
+        assertThat(executor.fetch(ticket), hasEntry("status", "PENDING"));
+
+        latch.countDown();
+        var result = executor.fetch(ticket);
+        for (int i = 0; i < 100 && "PENDING".equals(result.get("status")); i++) {
+            Thread.sleep(10);
+            result = executor.fetch(ticket);
+        }
+
+        assertThat(result, allOf(hasEntry("status", "DONE"), hasEntry("result", "done")));
+        assertThat(executor.fetch(ticket), hasEntry("status", "UNKNOWN"));
+    }
+
+    @Test
+    public void testUnfetchedResultsExpire() throws Exception {
+        final var kept = new OperationExecutor(0, 0, TimeUnit.HOURS.toMillis(1));
+        final var expiring = new OperationExecutor(0, 0, 0);
+        for (int i = 0; i < OperationExecutor.MAX_PENDING_SUBMISSIONS; i++) {
+            kept.submit(() -> null);
+            expiring.submit(() -> null);
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> kept.submit(() -> null));
+
+        String ticket = null;
+        for (int i = 0; i < 100 && ticket == null; i++) {
+            try {
+                ticket = expiring.submit(() -> "fresh");
+            }
+            catch (RejectedExecutionException e) {
+                // the previous results haven't completed yet
+                Thread.sleep(10);
+            }
+        }
+        assertThat(ticket, is(notNullValue()));
+    }
+}
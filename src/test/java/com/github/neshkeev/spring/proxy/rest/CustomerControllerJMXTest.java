@@ -12,22 +12,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import javax.management.Attribute;
 import javax.management.MBeanServerConnection;
+import javax.management.Notification;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
@@ -55,6 +69,103 @@ public class CustomerControllerJMXTest {
         assertThat(customers, hasItem(getCustomer()));
     }
 
+    @Test
+    public void testPagedList() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        final var result = mbc.invoke(name, "list", new Object[]{0, 1}, new String[0]);
+        final var page = objectMapper.readValue((String) result, CustomerPage.class);
+
+        assertThat(page.customers(), contains(getCustomer()));
+        assertThat(page.next(), is(equalTo(getCustomer().id())));
+
+        mvc.perform(
+                        get("/customers")
+                                .param("after", Integer.toString(getCustomer().id()))
+                                .param("limit", "10")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[*].id", everyItem(greaterThan(getCustomer().id()))))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        final var asyncResult = mvc.perform(
+                        get("/customers")
+                                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final var body = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        final List<Customer> customers = body.lines()
+                .map(this::readCustomer)
+                .toList();
+
+        assertThat(customers, hasItem(getCustomer()));
+    }
+
+    @Test
+    public void testConditionalGet() throws Exception {
+        for (String path : List.of("/customers/1", "/customers")) {
+            final var eTag = mvc.perform(get(path).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+
+            mvc.perform(get(path).accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(is(emptyString())));
+
+            mvc.perform(post("/customers")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(getCustomer())))
+                    .andExpect(status().is2xxSuccessful());
+
+            mvc.perform(get(path).accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(equalTo(eTag))));
+        }
+
+        mvc.perform(get("/customers").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", hasItem("John Snow")));
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        mbc.invoke(name, "add", new Object[]{objectMapper.writeValueAsString(new Customer(20, "Jon Arryn", false))}, new String[0]);
+
+        //noinspection unchecked
+        final var active = ((List<String>) mbc.invoke(name, "findByActive", new Object[]{true}, new String[0])).stream()
+                .map(this::readCustomer)
+                .toList();
+        assertThat(active, hasItem(getCustomer()));
+        assertThat(active.stream().map(Customer::active).toList(), everyItem(is(true)));
+
+        mvc.perform(
+                        get("/customers")
+                                .param("namePrefix", "Jo")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("John Snow", "Jon Arryn")));
+
+        mvc.perform(
+                        get("/customers")
+                                .param("active", "false")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(20)))
+                .andExpect(jsonPath("$[*].active", everyItem(is(false))));
+    }
+
     @Test
     public void testGet() throws Exception {
         final var name = new ObjectName(getCustomerControllerMBeanName());
@@ -81,6 +192,94 @@ public class CustomerControllerJMXTest {
 
     }
 
+    @Test
+    public void testInvokeBatch() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        final var actions = new String[]{"add", "add", "unknown"};
+        final var params = new Object[]{
+                new Object[]{objectMapper.writeValueAsString(new Customer(10, "Arya Stark", true))},
+                new Object[]{objectMapper.writeValueAsString(new Customer(11, "Sansa Stark", false))},
+                new Object[0]
+        };
+
+        final var result = mbc.invoke(name, "invokeBatch", new Object[]{actions, params, true}, new String[0]);
+        //noinspection unchecked
+        final var results = (List<Map<String, Object>>) result;
+
+        assertThat(results, hasSize(actions.length));
+        assertThat(results.get(0), not(hasKey("error")));
+        assertThat(results.get(1), not(hasKey("error")));
+        assertThat(results.get(2), hasKey("error"));
+
+        final var gets = mbc.invoke(name, "invokeBatch",
+                new Object[]{new String[]{"get", "get"}, new Object[]{new Object[]{10}, new Object[]{11}}, false},
+                new String[0]);
+        //noinspection unchecked
+        final var customers = ((List<Map<String, Object>>) gets).stream()
+                .map(e -> readCustomer((String) e.get("result")))
+                .toList();
+
+        assertThat(customers, contains(new Customer(10, "Arya Stark", true), new Customer(11, "Sansa Stark", false)));
+    }
+
+    @Test
+    public void testAttributes() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        mbc.invoke(name, "get", new Object[]{1}, new String[0]);
+
+        final var attributes = mbc.getAttributes(name, new String[]{"Count", "get.InvocationCount", "get.TotalTimeNanos", "unknown"});
+        final var values = attributes.asList().stream()
+                .collect(Collectors.toMap(Attribute::getName, Attribute::getValue));
+
+        assertThat(values.keySet(), containsInAnyOrder("Count", "get.InvocationCount", "get.TotalTimeNanos"));
+        assertThat((Integer) values.get("Count"), is(greaterThanOrEqualTo(1)));
+        assertThat((Long) values.get("get.InvocationCount"), is(greaterThanOrEqualTo(1L)));
+        assertThat((Long) values.get("get.TotalTimeNanos"), is(greaterThan(0L)));
+        assertThat(mbc.getAttribute(name, "Count"), is(equalTo(values.get("Count"))));
+    }
+
+    @Test
+    public void testMBeanInfo() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        final var info = mbc.getMBeanInfo(name);
+
+        assertThat(info.getDescriptor().getFieldValue("immutableInfo"), is(equalTo("true")));
+        assertThat(info, is(equalTo(mbc.getMBeanInfo(name))));
+    }
+
+    @Test
+    public void testNotifications() throws Exception {
+        final var name = new ObjectName(getCustomerControllerMBeanName());
+        final var notifications = new LinkedBlockingQueue<Notification>();
+        final NotificationListener listener = (notification, handback) -> notifications.add(notification);
+
+        final var info = mbc.getMBeanInfo(name).getNotifications();
+        assertThat(info, arrayWithSize(1));
+        assertThat(info[0].getNotifTypes(), arrayContaining(CustomerChangesConfiguration.CUSTOMERS_CHANGED));
+
+        mbc.addNotificationListener(name, listener, null, null);
+        try {
+            for (int id = 30; id < 33; id++) {
+                mvc.perform(post("/customers")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new Customer(id, "Customer " + id, true))))
+                        .andExpect(status().is2xxSuccessful());
+            }
+
+            final var changed = new HashSet<>();
+            while (!changed.containsAll(List.of(30, 31, 32))) {
+                final var notification = notifications.poll(10, TimeUnit.SECONDS);
+                assertThat(notification, is(notNullValue()));
+                assertThat(notification.getType(), is(equalTo(CustomerChangesConfiguration.CUSTOMERS_CHANGED)));
+                assertThat(notification.getSource(), is(equalTo(name)));
+                changed.addAll(Arrays.asList((Object[]) notification.getUserData()));
+            }
+        }
+        finally {
+            mbc.removeNotificationListener(name, listener);
+        }
+    }
+
     @BeforeAll
     public static void beforeAll() throws IOException, AttachNotSupportedException {
         final long pid = ProcessHandle.current().pid();
@@ -0,0 +1,86 @@
+package com.github.neshkeev.spring.proxy.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.neshkeev.spring.proxy.jmx.ChangeNotifications;
+import com.github.neshkeev.spring.proxy.rest.store.StripedCustomerStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.management.Notification;
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CustomerStreamControllerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StripedCustomerStore customers;
+
+    private ChangeNotifications changes;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void beforeEach() {
+        customers = new StripedCustomerStore();
+        // the window outlasts the import, the close delivers it
+        changes = CustomerChangesConfiguration.customersChanged(Duration.ofMinutes(1), 1000);
+        mvc = MockMvcBuilders.standaloneSetup(new CustomerStreamController(customers, objectMapper, changes)).build();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        changes.close();
+    }
+
+    @Test
+    public void testImport() throws Exception {
+        final var announced = new LinkedBlockingQueue<Notification>();
+        changes.addNotificationListener((notification, handback) -> announced.add(notification), null, null);
+
+        final var ndjson = new StringBuilder();
+        for (int id = 100; id < 2600; id++) {
+            ndjson.append(objectMapper.writeValueAsString(new Customer(id, "Imported " + id, id % 2 == 0))).append('\n');
+        }
+        ndjson.append("{\"id\":\"not a number\"}\n[1, 2]\n");
+
+        mvc.perform(post("/customers/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2500)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.error").doesNotExist());
+
+        assertThat(customers.size(), is(equalTo(2500)));
+        assertThat(customers.get(2599), is(equalTo(new Customer(2599, "Imported 2599", false))));
+
+        // more ids than the window keeps are announced by one notification without them
+        changes.close();
+        final var notification = announced.poll(5, TimeUnit.SECONDS);
+        assertThat(notification, is(notNullValue()));
+        assertThat(notification.getUserData(), is(nullValue()));
+        assertThat(announced, is(empty()));
+
+        mvc.perform(post("/customers/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":2600,\"name\":\"Array\",\"active\":true}, 42, {\"id\":2601,"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.error", is(notNullValue())));
+
+        assertThat(customers.get(2600), is(equalTo(new Customer(2600, "Array", true))));
+        assertThat(customers.get(2601), is(nullValue()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompactCustomerStoreTest {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 10_000;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testConcurrentPuts(boolean offHeap) throws Exception {
+        final var store = new CompactCustomerStore(offHeap);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final var futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    final int id = thread * PER_THREAD + i;
+                    store.put(new Customer(id, "Customer " + id, id % 2 == 0));
+                    assertThat(store.get(id), is(equalTo(new Customer(id, "Customer " + id, id % 2 == 0))));
+                    assertThat(store.get(thread * PER_THREAD + i / 2), is(notNullValue()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES), is(true));
+
+        assertThat(store.size(), is(equalTo(THREADS * PER_THREAD)));
+        assertThat(store.list(), hasSize(THREADS * PER_THREAD));
+        assertThat(store.get(42), is(equalTo(new Customer(42, "Customer 42", true))));
+        assertThat(store.get(-1), is(nullValue()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReplace(boolean offHeap) {
+        final var store = new CompactCustomerStore(offHeap);
+
+        for (int i = 0; i < 1000; i++) {
+            store.put(new Customer(1, "John Snow".repeat(i % 7), i % 3 == 0));
+            store.put(new Customer(2, i % 5 == 0 ? null : "Джейн " + i, true));
+        }
+
+        assertThat(store.size(), is(equalTo(2)));
+        assertThat(store.get(1), is(equalTo(new Customer(1, "John Snow".repeat(999 % 7), true))));
+        assertThat(store.get(2), is(equalTo(new Customer(2, "Джейн 999", true))));
+        assertThat(store.page(1, 10), contains(store.get(2)));
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CustomerLogTest {
+    private static final Duration SYNC_INTERVAL = Duration.ofMillis(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReplay() throws Exception {
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            final var store = new PersistentCustomerStore(new StripedCustomerStore(), log, true);
+            store.put(new Customer(1, "John Snow", true));
+            store.put(new Customer(2, "Jane Doe", false));
+            store.put(new Customer(1, "Джон Сноу", false));
+            store.put(new Customer(3, null, true));
+        }
+
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            final var store = new PersistentCustomerStore(new StripedCustomerStore(), log, true);
+
+            assertThat(store.size(), is(equalTo(3)));
+            assertThat(store.get(1), is(equalTo(new Customer(1, "Джон Сноу", false))));
+            assertThat(store.get(2), is(equalTo(new Customer(2, "Jane Doe", false))));
+            assertThat(store.get(3), is(equalTo(new Customer(3, null, true))));
+
+            store.put(new Customer(4, "Arya Stark", true));
+        }
+
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            final var replayed = new ArrayList<Customer>();
+            log.replay(replayed::add);
+            assertThat(replayed, hasSize(5));
+            assertThat(replayed.get(4), is(equalTo(new Customer(4, "Arya Stark", true))));
+        }
+    }
+
+    @Test
+    public void testFailedSync() throws Exception {
+        final var log = new CustomerLog(directory, 4096, SYNC_INTERVAL) {
+            @Override
+            void force(MappedByteBuffer buffer) {
+                throw new UncheckedIOException(new IOException("No space left on device"));
+            }
+        };
+
+        final var sequence = log.append(new Customer(1, "John Snow", true));
+        final var error = assertThrows(IllegalStateException.class, () -> log.awaitDurable(sequence));
+        assertThat(error.getCause(), is(instanceOf(UncheckedIOException.class)));
+
+        assertThrows(IllegalStateException.class, log::close);
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            log.append(new Customer(1, "John Snow", true));
+            log.append(new Customer(2, "Jane Doe", false));
+        }
+
+        // corrupt the name of the second record as if the process crashed in the middle of the write
+        final Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 30 + 17);
+        }
+
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            final var replayed = new ArrayList<Customer>();
+            log.replay(replayed::add);
+            assertThat(replayed, contains(new Customer(1, "John Snow", true)));
+
+            log.append(new Customer(3, "Arya Stark", true));
+        }
+
+        try (var log = new CustomerLog(directory, 4096, SYNC_INTERVAL)) {
+            final var replayed = new ArrayList<Customer>();
+            log.replay(replayed::add);
+            assertThat(replayed, contains(new Customer(1, "John Snow", true), new Customer(3, "Arya Stark", true)));
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            for (int i = 0; i < 200; i++) {
+                log.append(new Customer(i % 10, "Customer " + i, i % 2 == 0));
+            }
+            log.compact();
+
+            // the 10 latest records don't fit into one segment, so the run takes two next to the active one
+            assertThat(log.segmentCount(), is(equalTo(3)));
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            final var sizes = files.map(CustomerLogTest::size).toList();
+            assertThat(sizes, hasSize(3));
+            assertThat(sizes, everyItem(is(lessThanOrEqualTo(256L))));
+        }
+
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            final var store = new PersistentCustomerStore(new StripedCustomerStore(), log, false);
+
+            assertThat(store.size(), is(equalTo(10)));
+            for (int i = 190; i < 200; i++) {
+                assertThat(store.get(i % 10), is(equalTo(new Customer(i % 10, "Customer " + i, i % 2 == 0))));
+            }
+        }
+    }
+
+    @Test
+    public void testBackgroundCompaction() throws Exception {
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            for (int i = 0; i < 2_000; i++) {
+                log.append(new Customer(i % 300, "Customer " + i, i % 2 == 0));
+            }
+        }
+
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            // the runs keep stale records until they are merged, but never more than one per id within a run
+            assertThat(log.segmentCount(), is(lessThan(2_000 * 30 / 256 / 2)));
+
+            final var store = new PersistentCustomerStore(new StripedCustomerStore(), log, false);
+            assertThat(store.size(), is(equalTo(300)));
+            for (int i = 1_700; i < 2_000; i++) {
+                assertThat(store.get(i % 300), is(equalTo(new Customer(i % 300, "Customer " + i, i % 2 == 0))));
+            }
+        }
+    }
+
+    @Test
+    public void testIncompleteRun(@TempDir Path other) throws Exception {
+        try (var log = new CustomerLog(other, 256, SYNC_INTERVAL)) {
+            log.append(new Customer(1, "Stale", false));
+        }
+
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            log.append(new Customer(1, "John Snow", true));
+            for (int i = 0; i < 20; i++) {
+                log.append(new Customer(2, "Arya Stark " + i, true));
+            }
+            assertThat(log.segmentCount(), is(equalTo(3)));
+        }
+
+        // a compaction that crashed before deleting the segments it read leaves its run next to them
+        final var leftover = directory.resolve("00000000000000000001-000000.log");
+        Files.copy(other.resolve("00000000000000000000.log"), leftover);
+
+        try (var log = new CustomerLog(directory, 256, SYNC_INTERVAL)) {
+            final var store = new PersistentCustomerStore(new StripedCustomerStore(), log, false);
+
+            assertThat(store.get(1), is(equalTo(new Customer(1, "John Snow", true))));
+            assertThat(Files.exists(leftover), is(false));
+        }
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class IndexedCustomerStoreTest {
+
+    @Test
+    public void testFindByActive() {
+        final var store = new IndexedCustomerStore(new StripedCustomerStore());
+        store.put(new Customer(3, "Arya Stark", true));
+        store.put(new Customer(1, "John Snow", true));
+        store.put(new Customer(2, "Sansa Stark", false));
+        store.put(new Customer(1, "John Snow", false));
+
+        assertThat(store.findByActive(true), contains(new Customer(3, "Arya Stark", true)));
+        assertThat(store.findByActive(false), contains(new Customer(1, "John Snow", false), new Customer(2, "Sansa Stark", false)));
+    }
+
+    @Test
+    public void testFindByNamePrefix() {
+        final var delegate = new StripedCustomerStore();
+        delegate.put(new Customer(4, "Bran Stark", true));
+
+        final var store = new IndexedCustomerStore(delegate);
+        store.put(new Customer(1, "Sansa Stark", true));
+        store.put(new Customer(2, "Arya Stark", false));
+        store.put(new Customer(3, null, true));
+        store.put(new Customer(5, "Arya Stark", true));
+        store.put(new Customer(2, "Jaime Lannister", false));
+
+        assertThat(store.findByNamePrefix("Arya"), contains(new Customer(5, "Arya Stark", true)));
+        assertThat(store.findByNamePrefix("Bran"), contains(new Customer(4, "Bran Stark", true)));
+        assertThat(store.findByNamePrefix("J"), contains(new Customer(2, "Jaime Lannister", false)));
+        assertThat(store.findByNamePrefix("Stark"), is(empty()));
+    }
+
+    @Test
+    public void testFallbackMatchesIndexes() {
+        final var plain = new StripedCustomerStore();
+        final var indexed = new IndexedCustomerStore(new StripedCustomerStore());
+        for (int i = 0; i < 1000; i++) {
+            final var customer = new Customer(i % 300, "Customer " + (i % 17), i % 3 == 0);
+            plain.put(customer);
+            indexed.put(customer);
+        }
+
+        assertThat(indexed.findByActive(true), is(equalTo(plain.findByActive(true))));
+        assertThat(indexed.findByActive(false), is(equalTo(plain.findByActive(false))));
+        assertThat(indexed.findByNamePrefix("Customer 1"), is(equalTo(plain.findByNamePrefix("Customer 1"))));
+    }
+
+    @Test
+    public void testNameIndexMerges() {
+        final var plain = new StripedCustomerStore();
+        final var indexed = new IndexedCustomerStore(new StripedCustomerStore());
+        // enough writes to merge the delta into the snapshot a few times, the renames leave stale entries behind
+        for (int i = 0; i < 50_000; i++) {
+            final var customer = new Customer(i % 7_000, i % 11 == 0 ? null : "Customer " + (i % 13) + " " + i, i % 3 == 0);
+            plain.put(customer);
+            indexed.put(customer);
+        }
+
+        for (String prefix : new String[]{"", "Customer 1", "Customer 12 ", "Customer 7 4", "Nobody"}) {
+            assertThat(indexed.findByNamePrefix(prefix), is(equalTo(plain.findByNamePrefix(prefix))));
+        }
+    }
+
+    @Test
+    public void testWithoutNameIndex() {
+        final var store = new IndexedCustomerStore(new CompactCustomerStore(), false);
+        store.put(new Customer(Integer.MIN_VALUE, "Arya Stark", false));
+        store.put(new Customer(2, "Sansa Stark", true));
+        store.put(new Customer(1, "Arya Stark", true));
+        store.put(new Customer(2, "Sansa Stark", false));
+
+        assertThat(store.findByNamePrefix("Arya"), contains(new Customer(Integer.MIN_VALUE, "Arya Stark", false), new Customer(1, "Arya Stark", true)));
+        assertThat(store.findByActive(false), contains(new Customer(Integer.MIN_VALUE, "Arya Stark", false), new Customer(2, "Sansa Stark", false)));
+        assertThat(store.findByActive(true), contains(new Customer(1, "Arya Stark", true)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.neshkeev.spring.proxy.rest.store;
+
+import com.github.neshkeev.spring.proxy.rest.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StripedCustomerStoreTest {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 10_000;
+
+    @Test
+    public void testConcurrentPuts() throws Exception {
+        final var store = new StripedCustomerStore(4);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final var futures = new ArrayList<Future<?>>();
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    final int id = thread * PER_THREAD + i;
+                    store.put(new Customer(id, "Customer " + id, id % 2 == 0));
+                    assertThat(store.get(id), is(notNullValue()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES), is(true));
+
+        assertThat(store.size(), is(equalTo(THREADS * PER_THREAD)));
+        assertThat(store.list(), hasSize(THREADS * PER_THREAD));
+        assertThat(store.get(42), is(equalTo(new Customer(42, "Customer 42", true))));
+        assertThat(store.get(-1), is(nullValue()));
+    }
+
+    @Test
+    public void testReplace() {
+        final var store = new StripedCustomerStore();
+
+        store.put(new Customer(1, "John Snow", true));
+        store.put(new Customer(1, "Jane Doe", false));
+
+        assertThat(store.size(), is(equalTo(1)));
+        assertThat(store.get(1), is(equalTo(new Customer(1, "Jane Doe", false))));
+    }
+
+    @Test
+    public void testPage() {
+        final var store = new StripedCustomerStore();
+        final var ids = new TreeSet<Integer>(List.of(Integer.MIN_VALUE, -1025, -1024, -1, 0, 63, 64, 1023, 1024, Integer.MAX_VALUE));
+        final var random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(random.nextInt(20_000) - 10_000);
+        }
+        ids.forEach(id -> store.put(new Customer(id, "Customer " + id, true)));
+
+        final var paged = new ArrayList<Integer>();
+        var after = Integer.MIN_VALUE;
+        paged.add(store.get(after).id());
+        for (var page = store.page(after, 7); !page.isEmpty(); page = store.page(after, 7)) {
+            page.forEach(customer -> paged.add(customer.id()));
+            after = page.get(page.size() - 1).id();
+        }
+
+        assertThat(paged, is(equalTo(new ArrayList<>(ids))));
+        assertThat(store.page(1023, 2).stream().map(Customer::id).toList(), contains(1024, ids.higher(1024)));
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingInvocationHandlerTest {
+
+    public record Account(int id, String owner) {}
+
+    public interface Accounts {
+        @Memoized(maxSize = 4)
+        Account get(int id);
+
+        @Memoized(ttlMillis = 50)
+        String owners();
+
+        @Memoized
+        String owners(String prefix);
+
+        @Invalidates(value = "get", key = "id")
+        void put(Account account);
+
+        @Invalidates(value = "get", key = "id")
+        void putAll(List<Account> accounts);
+
+        @Invalidates("owners")
+        void clear();
+
+        int size();
+    }
+
+    @Test
+    public void testHitsAndInvalidation() {
+        final var backend = new Backend();
+        final var statistics = new CacheStatistics();
+        final var accounts = proxy(backend, statistics);
+
+        accounts.put(new Account(1, "John"));
+        assertThat(accounts.get(1).owner(), is(equalTo("John")));
+        assertThat(accounts.get(1).owner(), is(equalTo("John")));
+        assertThat(backend.loads.get(), is(equalTo(1)));
+
+        accounts.put(new Account(1, "Jane"));
+        assertThat(accounts.get(1).owner(), is(equalTo("Jane")));
+        assertThat(backend.loads.get(), is(equalTo(2)));
+        assertThat(accounts.size(), is(equalTo(1)));
+
+        final var snapshot = statistics.snapshot().get("Accounts.get(int)");
+        assertThat(snapshot.hits(), is(equalTo(1L)));
+        assertThat(snapshot.misses(), is(equalTo(2L)));
+    }
+
+    @Test
+    public void testEviction() {
+        final var backend = new Backend();
+        final var statistics = new CacheStatistics();
+        final var accounts = proxy(backend, statistics);
+
+        for (int i = 0; i < 100; i++) {
+            accounts.put(new Account(i, "Owner " + i));
+            accounts.get(i);
+        }
+
+        final var snapshot = statistics.snapshot().get("Accounts.get(int)");
+        assertThat(snapshot.size(), is(lessThanOrEqualTo(4)));
+        assertThat(snapshot.evictions(), is(greaterThanOrEqualTo(96L)));
+    }
+
+    @Test
+    public void testOverloadedStatistics() {
+        final var statistics = new CacheStatistics();
+        final var accounts = proxy(new Backend(), statistics);
+
+        accounts.owners();
+        accounts.owners();
+        accounts.owners("J");
+
+        final var snapshot = statistics.snapshot();
+        assertThat(snapshot.get("Accounts.owners()").hits(), is(equalTo(1L)));
+        assertThat(snapshot.get("Accounts.owners()").misses(), is(equalTo(1L)));
+        assertThat(snapshot.get("Accounts.owners(String)").misses(), is(equalTo(1L)));
+
+        assertThrows(IllegalArgumentException.class, () -> proxy(new Backend(), statistics));
+    }
+
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        final var backend = new Backend();
+        final var accounts = proxy(backend, null);
+
+        accounts.owners();
+        accounts.owners();
+        assertThat(backend.loads.get(), is(equalTo(1)));
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        accounts.owners();
+        assertThat(backend.loads.get(), is(equalTo(2)));
+
+        accounts.clear();
+        accounts.owners();
+        assertThat(backend.loads.get(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testCoalescedMisses() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var backend = new Backend() {
+            @Override
+            public Account get(int id) {
+                started.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.get(id);
+            }
+        };
+        backend.put(new Account(7, "John"));
+        final var accounts = proxy(backend, null);
+
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var results = new ArrayList<Future<Account>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> accounts.get(7)));
+            }
+            started.await();
+            release.countDown();
+
+            for (Future<Account> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).owner(), is(equalTo("John")));
+            }
+            assertThat(backend.loads.get(), is(equalTo(1)));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatchInvalidatesItsKeys() {
+        final var backend = new Backend();
+        final var accounts = proxy(backend, null);
+
+        accounts.putAll(List.of(new Account(1, "John"), new Account(2, "Jane")));
+        accounts.get(1);
+        accounts.get(2);
+        assertThat(backend.loads.get(), is(equalTo(2)));
+
+        accounts.putAll(List.of(new Account(1, "Jack")));
+        assertThat(accounts.get(1).owner(), is(equalTo("Jack")));
+        assertThat(accounts.get(2).owner(), is(equalTo("Jane")));
+        assertThat(backend.loads.get(), is(equalTo(3)));
+    }
+
+    @Test
+    public void testPolicy() {
+        final var backend = new Backend();
+        final var statistics = new CacheStatistics();
+        final var policy = new CachePolicy()
+                .memoize("get", 2, 0)
+                .invalidate("put", "get", "id");
+        final var accounts = (Accounts) Proxy.newProxyInstance(CachingInvocationHandlerTest.class.getClassLoader(),
+                new Class[]{Accounts.class},
+                new CachingInvocationHandler<>(Accounts.class, backend, policy, statistics));
+
+        for (int i = 0; i < 4; i++) {
+            accounts.put(new Account(i, "Owner " + i));
+            accounts.get(i);
+            accounts.owners();
+        }
+        accounts.put(new Account(3, "John"));
+        assertThat(accounts.get(3).owner(), is(equalTo("John")));
+
+        final var snapshot = statistics.snapshot();
+        assertThat(snapshot.keySet(), contains("Accounts.get(int)"));
+        assertThat(snapshot.get("Accounts.get(int)").size(), is(lessThanOrEqualTo(2)));
+        assertThat(backend.loads.get(), is(equalTo(9)));
+
+        assertThrows(IllegalArgumentException.class, () -> new CachingInvocationHandler<>(Accounts.class, backend,
+                new CachePolicy().invalidate("put", "owners", "id"), null));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() {
+        final var backend = new Backend();
+        final var accounts = proxy(backend, null);
+
+        assertThrows(IllegalArgumentException.class, () -> accounts.get(42));
+        assertThrows(IllegalArgumentException.class, () -> accounts.get(42));
+        assertThat(backend.loads.get(), is(equalTo(2)));
+    }
+
+    private static Accounts proxy(Accounts delegate, CacheStatistics statistics) {
+        return (Accounts) Proxy.newProxyInstance(CachingInvocationHandlerTest.class.getClassLoader(),
+                new Class[]{Accounts.class},
+                new CachingInvocationHandler<>(Accounts.class, delegate, statistics));
+    }
+
+    private static class Backend implements Accounts {
+        final ConcurrentHashMap<Integer, Account> accounts = new ConcurrentHashMap<>();
+        final AtomicInteger loads = new AtomicInteger();
+
+        @Override
+        public Account get(int id) {
+            loads.incrementAndGet();
+            final var account = accounts.get(id);
+            if (account == null) throw new IllegalArgumentException("No account " + id);
+            return account;
+        }
+
+        @Override
+        public String owners() {
+            loads.incrementAndGet();
+            return String.join(",", accounts.values().stream().map(Account::owner).toList());
+        }
+
+        @Override
+        public String owners(String prefix) {
+            loads.incrementAndGet();
+            return String.join(",", accounts.values().stream().map(Account::owner).filter(owner -> owner.startsWith(prefix)).toList());
+        }
+
+        @Override
+        public void put(Account account) {
+            accounts.put(account.id(), account);
+        }
+
+        @Override
+        public void putAll(List<Account> batch) {
+            batch.forEach(this::put);
+        }
+
+        @Override
+        public void clear() {
+            accounts.clear();
+        }
+
+        @Override
+        public int size() {
+            return accounts.size();
+        }
+    }
+}
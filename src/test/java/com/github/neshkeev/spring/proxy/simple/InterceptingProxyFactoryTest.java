@@ -0,0 +1,151 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InterceptingProxyFactoryTest {
+
+    @Test
+    public void testOrder() {
+        final var calls = new ArrayList<String>();
+        final PasswordGenerator delegate = () -> {
+            calls.add("delegate");
+            return "secret";
+        };
+
+        final var generator = InterceptingProxyFactory.proxy(PasswordGenerator.class, delegate,
+                tracing("outer", calls), tracing("inner", calls));
+
+        assertThat(generator.getPassword(), is(equalTo("secret")));
+        assertThat(calls, contains("outer:start", "inner:start", "delegate", "inner:end", "outer:end"));
+    }
+
+    @Test
+    public void testApplicableInterceptors() {
+        final var calls = new ArrayList<String>();
+        final var checks = new AtomicInteger();
+        final Interceptor skipped = new Interceptor() {
+            @Override
+            public boolean appliesTo(Method method) {
+                checks.incrementAndGet();
+                return !method.getName().equals("getPassword");
+            }
+
+            @Override
+            public Object intercept(Invocation invocation) {
+                throw new AssertionError("The interceptor must be skipped");
+            }
+        };
+
+        final var generator = InterceptingProxyFactory.proxy(PasswordGenerator.class, () -> "secret",
+                List.of(skipped, tracing("applied", calls)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(generator.getPassword(), is(equalTo("secret")));
+        }
+        assertThat(checks.get(), is(equalTo(1)));
+        assertThat(calls, hasSize(6));
+    }
+
+    @Test
+    public void testRetryAndExceptions() {
+        final var attempts = new AtomicInteger();
+        final PasswordGenerator flaky = () -> {
+            if (attempts.incrementAndGet() < 3) throw new IllegalStateException("Not yet");
+            return "secret";
+        };
+        final Interceptor retry = invocation -> {
+            for (int i = 0; ; i++) {
+                try {
+                    return invocation.proceed();
+                }
+                catch (IllegalStateException e) {
+                    if (i == 5) throw e;
+                }
+            }
+        };
+
+        assertThat(InterceptingProxyFactory.proxy(PasswordGenerator.class, flaky, retry).getPassword(), is(equalTo("secret")));
+        assertThat(attempts.get(), is(equalTo(3)));
+
+        final var failing = InterceptingProxyFactory.proxy(PasswordGenerator.class, () -> {
+            throw new IllegalStateException("Broken");
+        }, Interceptors.logging());
+        assertThrows(IllegalStateException.class, failing::getPassword);
+    }
+
+    @Test
+    public void testLatency() {
+        final var histograms = new LatencyHistograms();
+        final var generator = InterceptingProxyFactory.proxy(PasswordGenerator.class,
+                new PasswordGenerator() {
+                    @Override
+                    public String getPassword() {
+                        return "secret";
+                    }
+                },
+                Interceptors.logging(), Interceptors.latency(histograms));
+
+        generator.getPassword();
+        generator.toString();
+
+        assertThat(histograms.snapshot().keySet(), contains("PasswordGenerator.getPassword"));
+        assertThat(histograms.snapshot().get("PasswordGenerator.getPassword").count(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void testFlightRecorder() throws Exception {
+        final PasswordGenerator delegate = () -> "secret";
+        final var fused = InterceptingProxyFactory.proxy(PasswordGenerator.class, delegate, Interceptors.flightRecorder());
+        final var wrapped = (PasswordGenerator) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PasswordGenerator.class},
+                new LoggerWrapperInvocationHandler<>(delegate, null, false));
+
+        final var file = Files.createTempFile("proxy-events", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.github.neshkeev.spring.proxy.ProxyInvocation").withoutThreshold();
+            recording.start();
+
+            fused.getPassword();
+            wrapped.getPassword();
+
+            recording.stop();
+            recording.dump(file);
+
+            final var events = RecordingFile.readAllEvents(file);
+            assertThat(events, hasSize(2));
+            for (var event : events) {
+                assertThat(event.getString("type"), is(equalTo(PasswordGenerator.class.getName())));
+                assertThat(event.getString("method"), is(equalTo("getPassword")));
+                assertThat(event.getBoolean("failed"), is(false));
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Interceptor tracing(String name, List<String> calls) {
+        return invocation -> {
+            calls.add(name + ":start");
+            try {
+                return invocation.proceed();
+            }
+            finally {
+                calls.add(name + ":end");
+            }
+        };
+    }
+}
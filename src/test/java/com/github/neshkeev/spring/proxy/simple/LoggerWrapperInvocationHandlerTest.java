@@ -1,5 +1,6 @@
 package com.github.neshkeev.spring.proxy.simple;
 
+import com.github.neshkeev.spring.proxy.jmx.MBeanUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,12 +12,12 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.management.MBeanFeatureInfo;
 import java.lang.reflect.Proxy;
+import java.util.Arrays;
 
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.emptyString;
+import static org.hamcrest.Matchers.*;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = LoggerWrapperInvocationHandlerTest.PasswordGeneratorInvocationHandlerTestConfig.class)
@@ -28,6 +29,45 @@ public class LoggerWrapperInvocationHandlerTest {
         assertThat(password, is(not(emptyString())));
     }
 
+    @Test
+    public void testHistograms(@Autowired @Qualifier("meteredGenerator") PasswordGenerator passwordGenerator,
+                               @Autowired LatencyHistograms histograms) {
+        for (int i = 0; i < 100; i++) {
+            passwordGenerator.getPassword();
+        }
+
+        final var snapshot = histograms.snapshot().get("PasswordGenerator.getPassword");
+
+        assertThat(snapshot.count(), is(equalTo(100L)));
+        assertThat(snapshot.p50(), is(lessThanOrEqualTo(snapshot.p99())));
+        assertThat(snapshot.p999(), is(lessThanOrEqualTo(snapshot.max())));
+    }
+
+    @Test
+    public void testHistogramsMBean() throws Exception {
+        final var histograms = new LatencyHistograms();
+        histograms.record(PasswordGenerator.class.getMethod("getPassword"), 1_000);
+        histograms.rotate();
+        assertThat(histograms.snapshot().get("PasswordGenerator.getPassword").count(), is(equalTo(1L)));
+        histograms.rotate();
+        assertThat(histograms.snapshot().get("PasswordGenerator.getPassword").count(), is(equalTo(0L)));
+
+        final var operations = Arrays.stream(MBeanUtils.mBeanInfo(LatencyHistograms.class).getOperations())
+                .map(MBeanFeatureInfo::getName)
+                .toList();
+        assertThat(operations, containsInAnyOrder("snapshot", "reset", MBeanUtils.INVOKE_BATCH));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            final var index = LatencyHistogram.indexOf(value);
+
+            assertThat(LatencyHistogram.highestValueOf(index), is(greaterThanOrEqualTo(value)));
+            assertThat(LatencyHistogram.highestValueOf(index) - value, is(lessThanOrEqualTo(value / 32)));
+        }
+    }
+
     @TestConfiguration
     static class PasswordGeneratorInvocationHandlerTestConfig {
 
@@ -47,6 +87,19 @@ public class LoggerWrapperInvocationHandlerTest {
                     new Class[]{PasswordGenerator.class},
                     new LoggerWrapperInvocationHandler<>(generator));
         }
+
+        @Bean
+        public LatencyHistograms histograms() {
+            return new LatencyHistograms();
+        }
+
+        @Bean("meteredGenerator")
+        public PasswordGenerator generatorWithHistograms(LatencyHistograms histograms) {
+            final var generator = generator();
+            return (PasswordGenerator) Proxy.newProxyInstance(LoggerWrapperInvocationHandlerTest.class.getClassLoader(),
+                    new Class[]{PasswordGenerator.class},
+                    new LoggerWrapperInvocationHandler<>(generator, histograms, false));
+        }
     }
 
 }
\ No newline at end of file
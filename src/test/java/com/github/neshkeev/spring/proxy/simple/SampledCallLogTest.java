@@ -0,0 +1,148 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import com.github.neshkeev.spring.proxy.jmx.MBeanUtils;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanFeatureInfo;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SampledCallLogTest {
+
+    public interface Service {
+        String hot();
+
+        String cold();
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        final var calls = new ConcurrentLinkedQueue<SampledCallLog.Call>();
+        final var hot = Service.class.getMethod("hot");
+        final var cold = Service.class.getMethod("cold");
+
+        try (var log = new SampledCallLog(64, 0, Map.of("Service.cold", 1.0), Duration.ofMillis(10), calls::add)) {
+            log.record(hot, 1_000, false);
+            log.record(cold, 1_000, false);
+            log.record(hot, Duration.ofMillis(20).toNanos(), true);
+        }
+
+        assertThat(calls.stream().map(call -> call.method().getName()).toList(), contains("cold", "hot"));
+        assertThat(calls.stream().map(SampledCallLog.Call::failed).toList(), contains(false, true));
+    }
+
+    @Test
+    public void testDropped() throws Exception {
+        final var release = new CountDownLatch(1);
+        final var logged = new AtomicInteger();
+        final var method = Service.class.getMethod("hot");
+
+        final var log = new SampledCallLog(4, 1, Map.of(), null, call -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logged.incrementAndGet();
+        });
+
+        for (int i = 0; i < 100; i++) {
+            log.record(method, i, false);
+        }
+        final var statistics = log.statistics();
+        assertThat(statistics.getDropped(), is(greaterThanOrEqualTo(100L - 1 - statistics.getCapacity())));
+
+        release.countDown();
+        log.close();
+        assertThat(logged.get() + statistics.getDropped(), is(equalTo(100L)));
+        assertThat(statistics.getLogged(), is(equalTo((long) logged.get())));
+    }
+
+    @Test
+    public void testStatisticsMBean() {
+        final var info = MBeanUtils.mBeanInfo(CallLogStatistics.class);
+
+        assertThat(Arrays.stream(info.getAttributes()).map(MBeanFeatureInfo::getName).toList(),
+                hasItems("Logged", "Dropped", "Capacity"));
+        assertThat(Arrays.stream(info.getOperations()).map(MBeanFeatureInfo::getName).toList(),
+                everyItem(is(oneOf("getLogged", "getDropped", "getCapacity", MBeanUtils.INVOKE_BATCH))));
+    }
+
+    @Test
+    public void testHandler() throws Exception {
+        final var calls = new ConcurrentLinkedQueue<SampledCallLog.Call>();
+        final Service delegate = new Service() {
+            @Override
+            public String hot() {
+                return "hot";
+            }
+
+            @Override
+            public String cold() {
+                throw new IllegalStateException("Cold");
+            }
+        };
+
+        try (var log = new SampledCallLog(64, 1, Map.of(), null, calls::add)) {
+            final var service = (Service) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class[]{Service.class},
+                    new LoggerWrapperInvocationHandler<>(delegate, null, log));
+
+            assertThat(service.hot(), is(equalTo("hot")));
+            try {
+                service.cold();
+            }
+            catch (RuntimeException expected) {
+                // the failure is logged as well
+            }
+        }
+
+        assertThat(calls.stream().map(SampledCallLog.Call::failed).toList(), contains(false, true));
+    }
+
+    @Test
+    public void testRing() throws Exception {
+        final var ring = new MpscRing<Integer>(1024);
+        final var producers = new ArrayList<Thread>();
+        final var offered = new ConcurrentLinkedQueue<Integer>();
+
+        for (int p = 0; p < 4; p++) {
+            final var base = p * 100_000;
+            final var producer = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (ring.offer(base + i)) {
+                        offered.add(base + i);
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        final var polled = new HashSet<Integer>();
+        while (producers.stream().anyMatch(Thread::isAlive)) {
+            for (var element = ring.poll(); element != null; element = ring.poll()) {
+                assertThat(polled.add(element), is(true));
+            }
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        for (var element = ring.poll(); element != null; element = ring.poll()) {
+            assertThat(polled.add(element), is(true));
+        }
+
+        assertThat(polled, is(equalTo(new HashSet<>(offered))));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.neshkeev.spring.proxy.simple;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = SecureBulkPasswordGeneratorTest.SecureBulkPasswordGeneratorTestConfig.class)
+public class SecureBulkPasswordGeneratorTest {
+    private static final int SIZE = 32;
+    private static final int COUNT = 10_000;
+
+    @Test
+    public void test(@Autowired @Qualifier("generator") BulkPasswordGenerator generator) {
+        assertPasswords(generator.getPasswords(COUNT));
+    }
+
+    @Test
+    public void testPregenerated(@Autowired @Qualifier("pregeneratingGenerator") BulkPasswordGenerator generator) {
+        assertPasswords(generator.getPasswords(COUNT));
+        assertPasswords(generator.getPasswords(1));
+    }
+
+    @Test
+    public void testSinglePasswords() {
+        // consecutive passwords share the scratch buffer of the thread, they must still be distinct
+        final var passwords = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            passwords[i] = Passwords.generate(SIZE);
+        }
+        assertPasswords(passwords);
+    }
+
+    private static void assertPasswords(String[] passwords) {
+        final var alphabet = new String(Passwords.ALPHABET);
+
+        assertThat(Set.of(passwords), hasSize(passwords.length));
+        assertThat(Arrays.asList(passwords), everyItem(is(matchesPattern("[" + alphabet + "]{" + SIZE + "}"))));
+    }
+
+    @TestConfiguration
+    static class SecureBulkPasswordGeneratorTestConfig {
+
+        @Bean("generator")
+        public SecureBulkPasswordGenerator generator() {
+            return new SecureBulkPasswordGenerator(SIZE);
+        }
+
+        @Bean("pregeneratingGenerator")
+        public SecureBulkPasswordGenerator pregeneratingGenerator() {
+            return new SecureBulkPasswordGenerator(SIZE, 1024);
+        }
+    }
+}